@@ -0,0 +1,150 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link MultiSplitGeometry}, the engine every layout measures with, with
+ * a growing number of panes: resolving a splitter during measure, resolving every
+ * splitter, clamping, pixel/percent conversion, hit testing and per-event drag
+ * updates.
+ * <p/>
+ * Run with {@code ./gradlew :split-pane-core:jmh}. Combine with
+ * {@code -prof gc} to confirm the engine does not allocate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MultiSplitGeometryBenchmark {
+
+    @Param({"2", "4", "16"})
+    public int panes;
+
+    private final MultiSplitGeometry mGeometry = new MultiSplitGeometry();
+
+    private int mProbe;
+    private int mDragCenter;
+    private int mDragDelta;
+    private int mPosition;
+
+    @Setup
+    public void setUp() {
+        mGeometry.setLength(2560);
+        mGeometry.setSplitterSize(16);
+        mGeometry.setPaneSizeMin(48);
+        mGeometry.setSplitterCount(panes - 1, true);
+        mGeometry.resolve();
+        mProbe = 0;
+        mDragCenter = mGeometry.getPosition(0);
+        mDragDelta = 5;
+        mPosition = mGeometry.getPosition(0) / 2;
+    }
+
+    @Benchmark
+    public int resolvePercent() {
+        mGeometry.setPositionPercent(0, 0.9f / panes);
+        mGeometry.resolve();
+        return mGeometry.getPosition(0);
+    }
+
+    @Benchmark
+    public float resolvePixels() {
+        mGeometry.setPosition(0, mPosition);
+        mGeometry.resolve();
+        return mGeometry.getPositionPercent(0);
+    }
+
+    @Benchmark
+    public int resolveClampedPercent() {
+        mGeometry.setPositionPercent(0, 0.99f);
+        mGeometry.resolve();
+        return mGeometry.getPosition(0);
+    }
+
+    @Benchmark
+    public int clampPosition() {
+        return mGeometry.clampPosition(0, mPosition);
+    }
+
+    @Benchmark
+    public int toPixels() {
+        return MultiSplitGeometry.toPixels(0.33f, mGeometry.getLength());
+    }
+
+    @Benchmark
+    public float toFraction() {
+        return MultiSplitGeometry.toFraction(mPosition, mGeometry.getLength());
+    }
+
+    @Benchmark
+    public int resolveAll() {
+        int count = mGeometry.getSplitterCount();
+        for (int i = 0; i < count; i++) {
+            mGeometry.setPositionPercent(i, (float) (i + 1) / (count + 1));
+        }
+        mGeometry.resolve();
+        return mGeometry.getPosition(count - 1);
+    }
+
+    @Benchmark
+    public int findSplitter() {
+        mProbe = (mProbe + 37) % 2560;
+        return mGeometry.findSplitter(mProbe, 8);
+    }
+
+    @Benchmark
+    public int dragStep() {
+        int center = mGeometry.dragStep(0, mDragCenter, mDragDelta);
+        if (center == mGeometry.getMinPosition(0) || center == mGeometry.getMaxPosition(0)) {
+            mDragDelta = -mDragDelta;
+        }
+        mDragCenter = center;
+        return center;
+    }
+
+    @Benchmark
+    public int dragCommit() {
+        int center = mGeometry.dragStep(0, mDragCenter, mDragDelta);
+        if (center == mGeometry.getMinPosition(0) || center == mGeometry.getMaxPosition(0)) {
+            mDragDelta = -mDragDelta;
+        }
+        mDragCenter = center;
+        mGeometry.moveTo(0, center);
+        mGeometry.resolve();
+        return mGeometry.getPaneSize(0) + mGeometry.getPaneSize(1);
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.core;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares how many pixels a splitter drag asks to be redrawn per frame when it
+ * invalidates the whole layout against when it only invalidates the damage tracked
+ * by {@link SplitterDamage}.
+ * <p>
+ * The {@code fullInvalidate} and {@code damageInvalidate} timings are a pixel-count
+ * proxy only: each frame fills the invalidated span of an {@code int[]} frame buffer,
+ * so they scale with the size of the dirty region and say nothing about real
+ * rendering cost on a device. The pixels counter is the figure to compare. The
+ * drawable {@code setState} and {@code setBounds} calls the layout skips per frame
+ * need Android and are not modelled here. {@code trackDamage} times the bookkeeping
+ * the layout actually adds per frame to compute the union of the old and new spans.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SplitterDamageBenchmark {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int SPLITTER_SIZE = 16;
+
+    @Param({"4", "24"})
+    public int step;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long pixels;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            pixels = 0;
+        }
+    }
+
+    private final SplitterDamage mDamage = new SplitterDamage();
+    private final int[] mFrame = new int[WIDTH * HEIGHT];
+
+    private int mCenter;
+    private int mDelta;
+
+    @Setup
+    public void setUp() {
+        mCenter = WIDTH / 2;
+        mDelta = step;
+        mDamage.reset(mCenter - SPLITTER_SIZE / 2, mCenter + SPLITTER_SIZE / 2);
+    }
+
+    @Benchmark
+    public int fullInvalidate(Counters counters) {
+        drag();
+        counters.pixels += fill(0, WIDTH);
+        return mFrame[mCenter];
+    }
+
+    @Benchmark
+    public int damageInvalidate(Counters counters) {
+        drag();
+        if (mDamage.move(mCenter - SPLITTER_SIZE / 2, mCenter + SPLITTER_SIZE / 2)) {
+            counters.pixels += fill(mDamage.getDirtyStart(), mDamage.getDirtyEnd());
+        }
+        return mFrame[mCenter];
+    }
+
+    @Benchmark
+    public int trackDamage() {
+        drag();
+        mDamage.move(mCenter - SPLITTER_SIZE / 2, mCenter + SPLITTER_SIZE / 2);
+        return mDamage.getDirtySize();
+    }
+
+    private void drag() {
+        int center = mCenter + mDelta;
+        if (center < SPLITTER_SIZE || center > WIDTH - SPLITTER_SIZE) {
+            mDelta = -mDelta;
+            center = mCenter + mDelta;
+        }
+        mCenter = center;
+    }
+
+    private int fill(int start, int end) {
+        for (int row = 0; row < HEIGHT; row++) {
+            Arrays.fill(mFrame, row * WIDTH + start, row * WIDTH + end, row);
+        }
+        return (end - start) * HEIGHT;
+    }
+
+}
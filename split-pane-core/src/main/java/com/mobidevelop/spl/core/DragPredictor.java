@@ -0,0 +1,135 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.core;
+
+/**
+ * Predicts where a dragged splitter will be a short time ahead from the most
+ * recent touch samples along its axis, so what is drawn can keep up with the
+ * finger instead of trailing it by the input and rendering latency.
+ * <p>
+ * The prediction extrapolates the least squares line through the samples of the
+ * last {@link #WINDOW_MILLIS} milliseconds. Samples are kept in a fixed ring, so
+ * adding one never allocates.
+ */
+public final class DragPredictor {
+
+    /**
+     * How far back samples are taken into account, in milliseconds.
+     */
+    public static final int WINDOW_MILLIS = 50;
+
+    /**
+     * The longest time a position is predicted ahead, in milliseconds.
+     */
+    public static final int HORIZON_MAX_MILLIS = 32;
+
+    private static final int SAMPLES = 8;
+    private static final int SAMPLES_MIN = 3;
+
+    private final long[] mTimes = new long[SAMPLES];
+    private final float[] mPositions = new float[SAMPLES];
+    private int mHead = 0;
+    private int mCount = 0;
+
+    /**
+     * Drops all samples, such as at the start of a drag.
+     */
+    public void reset() {
+        mHead = 0;
+        mCount = 0;
+    }
+
+    /**
+     * Adds a sample. Samples must be added in the order they occurred.
+     *
+     * @param timeMillis the time of the sample, in milliseconds
+     * @param position   the position along the axis of the splitter
+     */
+    public void addSample(long timeMillis, float position) {
+        if (mCount > 0 && timeMillis < mTimes[mHead]) {
+            // Time went backwards, the samples before it are from another gesture
+            reset();
+        }
+        mHead = (mHead + 1) % SAMPLES;
+        mTimes[mHead] = timeMillis;
+        mPositions[mHead] = position;
+        if (mCount < SAMPLES) {
+            mCount++;
+        }
+    }
+
+    /**
+     * Gets the velocity over the recent samples.
+     *
+     * @return the velocity, in units per millisecond, or 0 if there are too few recent samples
+     */
+    public float getVelocity() {
+        if (mCount < SAMPLES_MIN) {
+            return 0;
+        }
+        long latest = mTimes[mHead];
+        int n = 0;
+        double sumT = 0;
+        double sumP = 0;
+        double sumTT = 0;
+        double sumTP = 0;
+        for (int i = 0; i < mCount; i++) {
+            int index = (mHead - i + SAMPLES) % SAMPLES;
+            long age = latest - mTimes[index];
+            if (age > WINDOW_MILLIS) {
+                break;
+            }
+            // Relative to the latest sample, to keep the sums small
+            double t = -age;
+            double p = mPositions[index] - mPositions[mHead];
+            sumT += t;
+            sumP += p;
+            sumTT += t * t;
+            sumTP += t * p;
+            n++;
+        }
+        if (n < SAMPLES_MIN) {
+            return 0;
+        }
+        double denominator = n * sumTT - sumT * sumT;
+        if (denominator == 0) {
+            return 0;
+        }
+        return (float) ((n * sumTP - sumT * sumP) / denominator);
+    }
+
+    /**
+     * Predicts the position a time ahead of the latest sample.
+     *
+     * @param horizonMillis how far ahead to predict, in milliseconds, at most {@link #HORIZON_MAX_MILLIS}
+     * @return the predicted position, or the latest position if there is nothing to predict from
+     */
+    public float predict(int horizonMillis) {
+        if (mCount == 0) {
+            return 0;
+        }
+        float latest = mPositions[mHead];
+        if (horizonMillis <= 0) {
+            return latest;
+        }
+        return latest + getVelocity() * Math.min(horizonMillis, HORIZON_MAX_MILLIS);
+    }
+
+}
@@ -0,0 +1,777 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.core;
+
+import java.util.Arrays;
+
+/**
+ * Computes the positions of any number of splitters along a single axis.
+ * <p/>
+ * N panes are separated by N-1 splitters. Positions and fractions are kept in
+ * primitive arrays indexed by splitter, sorted along the axis, so hit testing is
+ * a binary search. This is the splitter model shared by every layout in the library.
+ * Only changing the number of splitters beyond the current capacity allocates.
+ * <p/>
+ * A pane may be collapsed, in which case the splitter next to it is pushed
+ * against the neighbouring splitter or edge until the pane is expanded again.
+ * <p/>
+ * Every pane may have a minimum and maximum size, in pixels or as a fraction of
+ * the length, falling back to the sizes set for all panes. They are resolved into
+ * a table of pixel sizes once per length, so clamping a splitter only looks up the
+ * two panes next to it. Sizes are measured between splitter centers.
+ */
+public final class MultiSplitGeometry {
+
+    /**
+     * Marker for a pixel position which has not been resolved yet.
+     */
+    public static final int POSITION_UNSET = Integer.MIN_VALUE;
+
+    /**
+     * Returned by {@link #findSplitter(int, int)} when no splitter is hit.
+     */
+    public static final int NO_SPLITTER = -1;
+
+    private int mLength = 0;
+    private int mSplitterSize = 0;
+    private int mPaneSizeMin = 0;
+    private float mPaneSizeMinPercent = -1;
+    private int mPaneSizeMax = -1;
+    private float mPaneSizeMaxPercent = -1;
+
+    private int mCount = 1;
+    private int[] mPositions = new int[]{POSITION_UNSET};
+    private float[] mPercents = new float[]{0.5f};
+    private boolean[] mCollapsed = new boolean[2];
+    private float[] mExpandedPercents = new float[2];
+
+    // Per pane constraints, a negative value falls back to the one for all panes
+    private int[] mPaneMins = new int[]{-1, -1};
+    private float[] mPaneMinPercents = new float[]{-1, -1};
+    private int[] mPaneMaxes = new int[]{-1, -1};
+    private float[] mPaneMaxPercents = new float[]{-1, -1};
+    private float[] mPaneWeights = new float[]{1, 1};
+
+    // The constraints resolved to pixels for the current length
+    private int[] mRangeMins = new int[2];
+    private int[] mRangeMaxes = new int[2];
+    private boolean mRangesValid = false;
+
+    public int getLength() {
+        return mLength;
+    }
+
+    public void setLength(int length) {
+        if (mLength != length) {
+            mLength = length;
+            mRangesValid = false;
+        }
+    }
+
+    public int getSplitterSize() {
+        return mSplitterSize;
+    }
+
+    public void setSplitterSize(int splitterSize) {
+        mSplitterSize = splitterSize;
+    }
+
+    public int getPaneSizeMin() {
+        return mPaneSizeMin;
+    }
+
+    /**
+     * Sets the minimum size of every pane without one of its own, in pixels.
+     *
+     * @param paneSizeMin the minimum size, in pixels
+     */
+    public void setPaneSizeMin(int paneSizeMin) {
+        mPaneSizeMin = paneSizeMin;
+        mPaneSizeMinPercent = -1;
+        mRangesValid = false;
+    }
+
+    public float getPaneSizeMinPercent() {
+        return mPaneSizeMinPercent;
+    }
+
+    /**
+     * Sets the minimum size of every pane without one of its own, as a fraction of
+     * the length.
+     *
+     * @param paneSizeMinPercent the minimum size, between 0 and 1, or a negative value to use pixels
+     */
+    public void setPaneSizeMinPercent(float paneSizeMinPercent) {
+        mPaneSizeMinPercent = paneSizeMinPercent < 0 ? -1 : clamp(paneSizeMinPercent, 0, 1);
+        mRangesValid = false;
+    }
+
+    public int getPaneSizeMax() {
+        return mPaneSizeMax;
+    }
+
+    /**
+     * Sets the maximum size of every pane without one of its own, in pixels.
+     *
+     * @param paneSizeMax the maximum size, in pixels, or a negative value for no maximum
+     */
+    public void setPaneSizeMax(int paneSizeMax) {
+        mPaneSizeMax = paneSizeMax < 0 ? -1 : paneSizeMax;
+        mPaneSizeMaxPercent = -1;
+        mRangesValid = false;
+    }
+
+    public float getPaneSizeMaxPercent() {
+        return mPaneSizeMaxPercent;
+    }
+
+    /**
+     * Sets the maximum size of every pane without one of its own, as a fraction of
+     * the length.
+     *
+     * @param paneSizeMaxPercent the maximum size, between 0 and 1, or a negative value to use pixels
+     */
+    public void setPaneSizeMaxPercent(float paneSizeMaxPercent) {
+        mPaneSizeMaxPercent = paneSizeMaxPercent < 0 ? -1 : clamp(paneSizeMaxPercent, 0, 1);
+        mRangesValid = false;
+    }
+
+    /**
+     * Sets the minimum size of a single pane. A fraction takes precedence over pixels;
+     * when both are negative the minimum for all panes applies.
+     *
+     * @param pane    the index of the pane
+     * @param pixels  the minimum size in pixels, or a negative value
+     * @param percent the minimum size as a fraction of the length, or a negative value
+     */
+    public void setPaneSizeMin(int pane, int pixels, float percent) {
+        if (mPaneMins[pane] != pixels || mPaneMinPercents[pane] != percent) {
+            mPaneMins[pane] = pixels;
+            mPaneMinPercents[pane] = percent;
+            mRangesValid = false;
+        }
+    }
+
+    /**
+     * Sets the maximum size of a single pane. A fraction takes precedence over pixels;
+     * when both are negative the maximum for all panes applies.
+     *
+     * @param pane    the index of the pane
+     * @param pixels  the maximum size in pixels, or a negative value
+     * @param percent the maximum size as a fraction of the length, or a negative value
+     */
+    public void setPaneSizeMax(int pane, int pixels, float percent) {
+        if (mPaneMaxes[pane] != pixels || mPaneMaxPercents[pane] != percent) {
+            mPaneMaxes[pane] = pixels;
+            mPaneMaxPercents[pane] = percent;
+            mRangesValid = false;
+        }
+    }
+
+    public float getPaneWeight(int pane) {
+        return mPaneWeights[pane];
+    }
+
+    /**
+     * Sets the share of the length a pane gets when the splitters are distributed by
+     * {@link #setSplitterCount(int, boolean)}.
+     *
+     * @param pane   the index of the pane
+     * @param weight the weight of the pane, values that are not positive count as 1
+     * @return whether the weight changed
+     */
+    public boolean setPaneWeight(int pane, float weight) {
+        weight = weight > 0 ? weight : 1;
+        if (mPaneWeights[pane] == weight) {
+            return false;
+        }
+        mPaneWeights[pane] = weight;
+        return true;
+    }
+
+    /**
+     * Gets the smallest allowed size of a pane for the current length, in pixels.
+     *
+     * @param pane the index of the pane
+     * @return the smallest allowed size of the pane
+     */
+    public int getPaneRangeMin(int pane) {
+        ensureRanges();
+        return mRangeMins[pane];
+    }
+
+    /**
+     * Gets the largest allowed size of a pane for the current length, in pixels.
+     *
+     * @param pane the index of the pane
+     * @return the largest allowed size of the pane
+     */
+    public int getPaneRangeMax(int pane) {
+        ensureRanges();
+        return mRangeMaxes[pane];
+    }
+
+    private void ensureRanges() {
+        if (mRangesValid) {
+            return;
+        }
+        int defaultMin = mPaneSizeMinPercent >= 0 ? toPixels(mPaneSizeMinPercent, mLength) : mPaneSizeMin;
+        int defaultMax = mPaneSizeMaxPercent >= 0 ? toPixels(mPaneSizeMaxPercent, mLength) : mPaneSizeMax >= 0 ? mPaneSizeMax : mLength;
+        for (int i = 0; i <= mCount; i++) {
+            int min = mPaneMinPercents[i] >= 0 ? toPixels(mPaneMinPercents[i], mLength) : mPaneMins[i] >= 0 ? mPaneMins[i] : defaultMin;
+            int max = mPaneMaxPercents[i] >= 0 ? toPixels(mPaneMaxPercents[i], mLength) : mPaneMaxes[i] >= 0 ? mPaneMaxes[i] : defaultMax;
+            mRangeMins[i] = min;
+            mRangeMaxes[i] = Math.max(min, max);
+        }
+        mRangesValid = true;
+    }
+
+    /**
+     * Gets the number of splitters, which is one less than the number of panes.
+     *
+     * @return the number of splitters
+     */
+    public int getSplitterCount() {
+        return mCount;
+    }
+
+    /**
+     * Gets the number of panes.
+     *
+     * @return the number of panes
+     */
+    public int getPaneCount() {
+        return mCount + 1;
+    }
+
+    /**
+     * Sets the number of splitters.
+     * <p/>
+     * When redistributing, every splitter is reset to an even share of the length.
+     * Otherwise existing splitters keep their positions and each added splitter
+     * halves the last pane.
+     *
+     * @param count        the number of splitters
+     * @param redistribute whether to reset every splitter to an even distribution
+     */
+    public void setSplitterCount(int count, boolean redistribute) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Splitter count must not be negative: " + count);
+        }
+        if (count > mPositions.length) {
+            int capacity = Math.max(count, mPositions.length * 2);
+            mPositions = Arrays.copyOf(mPositions, capacity);
+            mPercents = Arrays.copyOf(mPercents, capacity);
+            mCollapsed = Arrays.copyOf(mCollapsed, capacity + 1);
+            mExpandedPercents = Arrays.copyOf(mExpandedPercents, capacity + 1);
+            mPaneMins = grow(mPaneMins, capacity + 1);
+            mPaneMinPercents = grow(mPaneMinPercents, capacity + 1, -1);
+            mPaneMaxes = grow(mPaneMaxes, capacity + 1);
+            mPaneMaxPercents = grow(mPaneMaxPercents, capacity + 1, -1);
+            mPaneWeights = grow(mPaneWeights, capacity + 1, 1);
+            mRangeMins = new int[capacity + 1];
+            mRangeMaxes = new int[capacity + 1];
+        }
+        int previous = mCount;
+        mCount = count;
+        mRangesValid = false;
+        for (int i = count + 1; i <= previous; i++) {
+            mCollapsed[i] = false;
+        }
+        if (redistribute) {
+            Arrays.fill(mCollapsed, false);
+            float total = 0;
+            for (int i = 0; i <= count; i++) {
+                total += mPaneWeights[i];
+            }
+            float weight = 0;
+            for (int i = 0; i < count; i++) {
+                weight += mPaneWeights[i];
+                mPositions[i] = POSITION_UNSET;
+                mPercents[i] = weight / total;
+            }
+        } else {
+            for (int i = previous; i < count; i++) {
+                float before = i == 0 ? 0f : peekPercent(i - 1);
+                mPositions[i] = POSITION_UNSET;
+                mPercents[i] = (before + 1f) * 0.5f;
+            }
+        }
+    }
+
+    public int getPosition(int index) {
+        return mPositions[index];
+    }
+
+    public float getPositionPercent(int index) {
+        return mPercents[index];
+    }
+
+    /**
+     * Pins a splitter to a pixel position. Its fraction is discarded.
+     *
+     * @param index    the index of the splitter
+     * @param position the desired position of the splitter
+     */
+    public void setPosition(int index, int position) {
+        mPositions[index] = clamp(position, 0, Integer.MAX_VALUE);
+        mPercents[index] = -1;
+    }
+
+    /**
+     * Positions a splitter at a fraction of the length. Its pixel position is
+     * discarded and will be recomputed by {@link #resolve()}.
+     *
+     * @param index    the index of the splitter
+     * @param position the desired position of the splitter, between 0 and 1
+     */
+    public void setPositionPercent(int index, float position) {
+        mPositions[index] = POSITION_UNSET;
+        mPercents[index] = clamp(position, 0, 1);
+    }
+
+    /**
+     * Sets the pixel position and fraction of a splitter verbatim.
+     *
+     * @param index           the index of the splitter
+     * @param position        the pixel position, or {@link #POSITION_UNSET}
+     * @param positionPercent the fraction, or a negative value
+     */
+    public void set(int index, int position, float positionPercent) {
+        mPositions[index] = position;
+        mPercents[index] = positionPercent;
+    }
+
+    /**
+     * Moves a splitter by the given number of pixels, keeping it between its
+     * neighbours. The position becomes pinned in pixels.
+     *
+     * @param index the index of the splitter
+     * @param delta the number of pixels to move the splitter by
+     * @return the new position of the splitter
+     */
+    public int offsetPosition(int index, int delta) {
+        return moveTo(index, mPositions[index] + delta);
+    }
+
+    /**
+     * Moves a splitter to the given pixel position, keeping it between its
+     * neighbours. The position becomes pinned in pixels.
+     *
+     * @param index    the index of the splitter
+     * @param position the desired position of the splitter
+     * @return the new position of the splitter
+     */
+    public int moveTo(int index, int position) {
+        mPositions[index] = clampPosition(index, position);
+        mPercents[index] = -1;
+        return mPositions[index];
+    }
+
+    /**
+     * Advances a dragged splitter by one touch event without committing it.
+     *
+     * @param index  the index of the splitter
+     * @param center the current center of the dragged splitter
+     * @param delta  the distance moved since the previous touch event
+     * @return the new center of the dragged splitter, within the allowed range
+     */
+    public int dragStep(int index, int center, int delta) {
+        return clampPosition(index, center + delta);
+    }
+
+    public boolean isPaneCollapsed(int pane) {
+        return mCollapsed[pane];
+    }
+
+    /**
+     * Collapses or expands a pane. Collapsing remembers where the splitter next to
+     * the pane was, and expanding puts it back there.
+     *
+     * @param pane      the index of the pane
+     * @param collapsed whether the pane is collapsed
+     */
+    public void setPaneCollapsed(int pane, boolean collapsed) {
+        if (mCollapsed[pane] == collapsed) {
+            return;
+        }
+        int splitter = getCollapsingSplitter(pane);
+        if (collapsed) {
+            mExpandedPercents[pane] = peekPercent(splitter);
+            mCollapsed[pane] = true;
+        } else {
+            mCollapsed[pane] = false;
+            setPositionPercent(splitter, mExpandedPercents[pane]);
+        }
+    }
+
+    /**
+     * Marks a pane as collapsed or expanded without remembering or restoring the
+     * splitter next to it. Used when a drag pulls a collapsed pane open, and when
+     * such a pane is let go again before it got large enough.
+     *
+     * @param pane      the index of the pane
+     * @param collapsed whether the pane is collapsed
+     */
+    public void markPaneCollapsed(int pane, boolean collapsed) {
+        mCollapsed[pane] = collapsed;
+    }
+
+    /**
+     * Gets the fraction the splitter next to a collapsed pane returns to when the
+     * pane is expanded.
+     *
+     * @param pane the index of the pane
+     * @return the fraction of the length, between 0 and 1
+     */
+    public float getPaneExpandedPercent(int pane) {
+        return mExpandedPercents[pane];
+    }
+
+    /**
+     * Gets the splitter which moves when a pane collapses: the one after the pane,
+     * or the one before it for the last pane.
+     *
+     * @param pane the index of the pane
+     * @return the index of the splitter
+     */
+    public int getCollapsingSplitter(int pane) {
+        return pane < mCount ? pane : pane - 1;
+    }
+
+    /**
+     * Swaps two panes along with their sizes, constraints and collapsed state. The
+     * splitters between them move so that each pane keeps its exact size, and panes
+     * between the two shift by the difference. Before the length is known the swap
+     * is done on fractions instead.
+     *
+     * @param first  the index of one pane
+     * @param second the index of the other pane
+     */
+    public void swapPanes(int first, int second) {
+        if (first == second) {
+            return;
+        }
+        if (first > second) {
+            int t = first;
+            first = second;
+            second = t;
+        }
+        if (mLength > 0) {
+            resolve();
+            int secondSize = getPaneEnd(second) - getPaneStart(second);
+            int originalStart = getPaneStart(first);
+            int start = originalStart;
+            for (int pane = first; pane < second; pane++) {
+                // Read before the splitter after the pane moves
+                int size = pane == first ? secondSize : getSplitterStart(pane) - originalStart;
+                originalStart = getSplitterEnd(pane);
+                mPositions[pane] = start + size + (mSplitterSize / 2);
+                mPercents[pane] = toFraction(mPositions[pane], mLength);
+                start = getSplitterEnd(pane);
+            }
+        } else {
+            float originalStart = first == 0 ? 0f : peekPercent(first - 1);
+            float secondSpan = (second == mCount ? 1f : peekPercent(second)) - peekPercent(second - 1);
+            float position = originalStart;
+            for (int pane = first; pane < second; pane++) {
+                float originalEnd = peekPercent(pane);
+                position += pane == first ? secondSpan : originalEnd - originalStart;
+                originalStart = originalEnd;
+                mPositions[pane] = POSITION_UNSET;
+                mPercents[pane] = position;
+            }
+        }
+        swap(mCollapsed, first, second);
+        swap(mExpandedPercents, first, second);
+        swap(mPaneMins, first, second);
+        swap(mPaneMinPercents, first, second);
+        swap(mPaneMaxes, first, second);
+        swap(mPaneMaxPercents, first, second);
+        swap(mPaneWeights, first, second);
+        mRangesValid = false;
+    }
+
+    /**
+     * Resolves pixel positions from fractions (or fractions from pixel positions)
+     * for the current length, working along the axis so every splitter stays
+     * between its neighbours. Does nothing while the length is not positive.
+     */
+    public void resolve() {
+        if (mLength <= 0) {
+            return;
+        }
+        for (int i = 0; i < mCount; i++) {
+            int position = mPositions[i];
+            float percent = mPercents[i];
+            if (mCollapsed[i]) {
+                mPositions[i] = (i == 0 ? 0 : mPositions[i - 1]) + getCollapsedGap(i);
+                mPercents[i] = toFraction(mPositions[i], mLength);
+            } else if (i == mCount - 1 && mCollapsed[mCount]) {
+                mPositions[i] = mLength - getCollapsedGap(mCount);
+                mPercents[i] = toFraction(mPositions[i], mLength);
+            } else if (position == POSITION_UNSET && percent < 0) {
+                mPositions[i] = evenPosition(i);
+            } else if (position == POSITION_UNSET) {
+                position = toPixels(percent, mLength);
+                int clamped = clampPosition(i, position);
+                mPositions[i] = clamped;
+                if (clamped != position) {
+                    mPercents[i] = toFraction(clamped, mLength);
+                }
+            } else if (percent < 0) {
+                mPositions[i] = clampPosition(i, position);
+                mPercents[i] = toFraction(mPositions[i], mLength);
+            } else {
+                // Already resolved, but the constraints may have changed since
+                int clamped = clampPosition(i, position);
+                if (clamped != position) {
+                    mPositions[i] = clamped;
+                    mPercents[i] = toFraction(clamped, mLength);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the smallest position of a splitter, keeping the pane before it at least
+     * at its minimum and the pane after it at most at its maximum.
+     *
+     * @param index the index of the splitter
+     * @return the smallest position of the splitter
+     */
+    public int getMinPosition(int index) {
+        ensureRanges();
+        int before = index == 0 ? 0 : peekPosition(index - 1);
+        int after = index == mCount - 1 ? mLength : peekPosition(index + 1);
+        int min = before + getPaneSizeMin(index);
+        return mCollapsed[index + 1] ? min : Math.max(min, after - mRangeMaxes[index + 1]);
+    }
+
+    /**
+     * Gets the largest position of a splitter, keeping the pane after it at least at
+     * its minimum and the pane before it at most at its maximum.
+     *
+     * @param index the index of the splitter
+     * @return the largest position of the splitter
+     */
+    public int getMaxPosition(int index) {
+        ensureRanges();
+        int before = index == 0 ? 0 : peekPosition(index - 1);
+        int after = index == mCount - 1 ? mLength : peekPosition(index + 1);
+        int max = after - getPaneSizeMin(index + 1);
+        return mCollapsed[index] ? max : Math.min(max, before + mRangeMaxes[index]);
+    }
+
+    public int clampPosition(int index, int position) {
+        return clamp(position, getMinPosition(index), getMaxPosition(index));
+    }
+
+    public int getSplitterStart(int index) {
+        return mPositions[index] - (mSplitterSize / 2);
+    }
+
+    public int getSplitterEnd(int index) {
+        return mPositions[index] + (mSplitterSize / 2);
+    }
+
+    /**
+     * Gets the leading edge of a pane.
+     *
+     * @param pane the index of the pane
+     * @return the leading edge of the pane
+     */
+    public int getPaneStart(int pane) {
+        return pane == 0 ? 0 : getSplitterEnd(pane - 1);
+    }
+
+    /**
+     * Gets the trailing edge of a pane.
+     *
+     * @param pane the index of the pane
+     * @return the trailing edge of the pane
+     */
+    public int getPaneEnd(int pane) {
+        return pane == mCount ? mLength : getSplitterStart(pane);
+    }
+
+    /**
+     * Gets the size of a pane, never negative.
+     *
+     * @param pane the index of the pane
+     * @return the size of the pane
+     */
+    public int getPaneSize(int pane) {
+        return Math.max(0, getPaneEnd(pane) - getPaneStart(pane));
+    }
+
+    /**
+     * Finds the splitter whose touch area contains a coordinate. The touch area of a
+     * splitter is its bounds extended by the slop on both sides. Binary search over
+     * the resolved positions.
+     *
+     * @param coordinate the coordinate along the axis
+     * @param slop       the distance to extend each splitter's bounds by
+     * @return the index of the splitter, or {@link #NO_SPLITTER}
+     */
+    public int findSplitter(int coordinate, int slop) {
+        int low = 0;
+        int high = mCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int position = mPositions[mid];
+            if (position < coordinate) {
+                low = mid + 1;
+            } else if (position > coordinate) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        // low is the first splitter after the coordinate, check it and the one before
+        int best = NO_SPLITTER;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = low - 1; i <= low; i++) {
+            if (i >= 0 && i < mCount
+                    && coordinate >= getSplitterStart(i) - slop
+                    && coordinate <= getSplitterEnd(i) + slop) {
+                int distance = Math.abs(coordinate - mPositions[i]);
+                if (distance < bestDistance) {
+                    best = i;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best;
+    }
+
+    private int getPaneSizeMin(int pane) {
+        return mCollapsed[pane] ? getCollapsedGap(pane) : mRangeMins[pane];
+    }
+
+    /**
+     * Converts a fraction of a length into pixels.
+     *
+     * @param fraction the fraction
+     * @param length   the length
+     * @return the fraction in pixels
+     */
+    public static int toPixels(float fraction, int length) {
+        return (int) (length * fraction);
+    }
+
+    /**
+     * Converts a pixel position into a fraction of a length.
+     *
+     * @param position the position
+     * @param length   the length, must be positive
+     * @return the position as a fraction
+     */
+    public static float toFraction(int position, int length) {
+        return (float) position / (float) length;
+    }
+
+    public static float clamp(float value, float min, float max) {
+        if (value < min) {
+            return min;
+        } else if (value > max) {
+            return max;
+        }
+        return value;
+    }
+
+    public static int clamp(int value, int min, int max) {
+        if (value < min) {
+            return min;
+        } else if (value > max) {
+            return max;
+        }
+        return value;
+    }
+
+    public static boolean between(int value, int min, int max) {
+        return min <= value && value <= max;
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int t = array[i];
+        array[i] = array[j];
+        array[j] = t;
+    }
+
+    private static void swap(float[] array, int i, int j) {
+        float t = array[i];
+        array[i] = array[j];
+        array[j] = t;
+    }
+
+    private static void swap(boolean[] array, int i, int j) {
+        boolean t = array[i];
+        array[i] = array[j];
+        array[j] = t;
+    }
+
+    private static int[] grow(int[] array, int length) {
+        int previous = array.length;
+        array = Arrays.copyOf(array, length);
+        Arrays.fill(array, previous, length, -1);
+        return array;
+    }
+
+    private static float[] grow(float[] array, int length, float value) {
+        int previous = array.length;
+        array = Arrays.copyOf(array, length);
+        Arrays.fill(array, previous, length, value);
+        return array;
+    }
+
+    /**
+     * Gets the distance between the splitter centers on either side of a collapsed
+     * pane, or between the splitter center and the edge for the first and last pane.
+     */
+    private int getCollapsedGap(int pane) {
+        return pane == 0 || pane == mCount ? mSplitterSize / 2 : mSplitterSize;
+    }
+
+    private int peekPosition(int index) {
+        int position = mPositions[index];
+        if (position != POSITION_UNSET) {
+            return position;
+        }
+        float percent = mPercents[index];
+        return percent >= 0 ? toPixels(percent, mLength) : evenPosition(index);
+    }
+
+    private float peekPercent(int index) {
+        float percent = mPercents[index];
+        if (percent >= 0) {
+            return percent;
+        }
+        if (mPositions[index] != POSITION_UNSET && mLength > 0) {
+            return toFraction(mPositions[index], mLength);
+        }
+        return (float) (index + 1) / (float) (mCount + 1);
+    }
+
+    private int evenPosition(int index) {
+        return (int) ((long) mLength * (index + 1) / (mCount + 1));
+    }
+
+}
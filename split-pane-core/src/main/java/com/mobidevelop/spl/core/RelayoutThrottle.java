@@ -0,0 +1,180 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.core;
+
+/**
+ * Decides how often a live resize may relayout its panes.
+ * <p/>
+ * The throttle is fed the measured cost of each relayout and keeps a smoothed
+ * average of it. As long as a relayout fits within a share of the frame budget
+ * every frame may relayout; as it gets more expensive relayouts are spread over
+ * several frames, and once even that would drop below the minimum rate the
+ * throttle gives up and asks the caller to fall back to a cheaper preview for the
+ * rest of the gesture.
+ */
+public final class RelayoutThrottle {
+
+    private static final long DEFAULT_FRAME_INTERVAL_NANOS = 1000000000L / 60;
+
+    private long mFrameIntervalNanos = DEFAULT_FRAME_INTERVAL_NANOS;
+    private float mBudgetFraction = 0.5f;
+    private int mMaxFramesPerRelayout = 4;
+
+    private long mAverageCostNanos;
+    private long mIntervalNanos;
+    private long mLastRelayoutNanos;
+    private boolean mFallback;
+
+    /**
+     * Sets the duration of a display frame.
+     *
+     * @param frameIntervalNanos the duration of a frame, in nanoseconds
+     */
+    public void setFrameIntervalNanos(long frameIntervalNanos) {
+        mFrameIntervalNanos = frameIntervalNanos > 0 ? frameIntervalNanos : DEFAULT_FRAME_INTERVAL_NANOS;
+    }
+
+    /**
+     * Sets the duration of a display frame from a refresh rate.
+     *
+     * @param refreshRate the refresh rate of the display, in Hz
+     */
+    public void setRefreshRate(float refreshRate) {
+        setFrameIntervalNanos(refreshRate > 0 ? (long) (1000000000L / refreshRate) : 0);
+    }
+
+    public long getFrameIntervalNanos() {
+        return mFrameIntervalNanos;
+    }
+
+    /**
+     * Sets the share of a frame a relayout may take before relayouts are spread
+     * over several frames.
+     *
+     * @param budgetFraction the share of the frame, between 0 and 1
+     */
+    public void setBudgetFraction(float budgetFraction) {
+        mBudgetFraction = MultiSplitGeometry.clamp(budgetFraction, 0.05f, 1f);
+    }
+
+    public float getBudgetFraction() {
+        return mBudgetFraction;
+    }
+
+    /**
+     * Sets the largest number of frames allowed between two relayouts before the
+     * throttle falls back.
+     *
+     * @param maxFramesPerRelayout the largest number of frames between relayouts
+     */
+    public void setMaxFramesPerRelayout(int maxFramesPerRelayout) {
+        mMaxFramesPerRelayout = Math.max(1, maxFramesPerRelayout);
+    }
+
+    public int getMaxFramesPerRelayout() {
+        return mMaxFramesPerRelayout;
+    }
+
+    /**
+     * Resets the throttle at the start of a gesture. The cost estimate from the
+     * previous gesture is kept as a starting point, but halved if it caused a
+     * fall back, so content that got cheaper is probed again.
+     */
+    public void reset() {
+        mLastRelayoutNanos = Long.MIN_VALUE;
+        if (mFallback) {
+            mAverageCostNanos /= 2;
+        }
+        mFallback = false;
+        updateInterval();
+    }
+
+    /**
+     * Checks whether a relayout may run now. Does not record anything; call
+     * {@link #onRelayoutStarted(long)} once the relayout is actually requested.
+     *
+     * @param nowNanos the current time, in nanoseconds
+     * @return whether a relayout may run now
+     */
+    public boolean canRelayout(long nowNanos) {
+        return !mFallback && (mLastRelayoutNanos == Long.MIN_VALUE || nowNanos - mLastRelayoutNanos >= mIntervalNanos);
+    }
+
+    /**
+     * Records that a relayout was requested.
+     *
+     * @param nowNanos the current time, in nanoseconds
+     */
+    public void onRelayoutStarted(long nowNanos) {
+        mLastRelayoutNanos = nowNanos;
+    }
+
+    /**
+     * Records the cost of a relayout and adjusts the relayout rate.
+     *
+     * @param costNanos the time spent measuring and laying out, in nanoseconds
+     */
+    public void onRelayoutFinished(long costNanos) {
+        if (mAverageCostNanos == 0) {
+            mAverageCostNanos = costNanos;
+        } else {
+            // Exponential moving average, weighting the latest sample by a quarter
+            mAverageCostNanos += (costNanos - mAverageCostNanos) / 4;
+        }
+        updateInterval();
+    }
+
+    /**
+     * Gets whether relayouts are too expensive to keep up and the caller should
+     * fall back to a cheaper preview for the rest of the gesture.
+     *
+     * @return whether to fall back
+     */
+    public boolean isFallback() {
+        return mFallback;
+    }
+
+    /**
+     * Gets the number of frames between two relayouts at the current cost.
+     *
+     * @return the number of frames per relayout
+     */
+    public int getFramesPerRelayout() {
+        long budget = (long) (mFrameIntervalNanos * mBudgetFraction);
+        if (mAverageCostNanos <= budget) {
+            return 1;
+        }
+        return (int) ((mAverageCostNanos + budget - 1) / budget);
+    }
+
+    public long getAverageCostNanos() {
+        return mAverageCostNanos;
+    }
+
+    private void updateInterval() {
+        int frames = getFramesPerRelayout();
+        if (frames > mMaxFramesPerRelayout) {
+            mFallback = true;
+        }
+        // Leave a little slack so vsync jitter does not skip a whole frame
+        mIntervalNanos = frames * mFrameIntervalNanos - mFrameIntervalNanos / 4;
+    }
+
+}
@@ -0,0 +1,241 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.core;
+
+/**
+ * A two by two grid of panes divided by one vertical and one horizontal splitter.
+ * <p/>
+ * Each axis is a {@link MultiSplitGeometry} with a single splitter: the columns
+ * geometry positions the vertical splitter along x, the rows geometry positions the
+ * horizontal splitter along y. Constraints, weights and collapsing are set per
+ * column and per row on those geometries, pane 0 of each being the left column or
+ * the top row.
+ * Both splitters span the whole grid, so they always cross at a single point which
+ * can be dragged to move both at once. Panes are numbered in row-major order, 0
+ * being the top left and 3 the bottom right. Nothing here allocates.
+ */
+public final class SplitGrid {
+
+    public static final int PANE_COUNT = 4;
+
+    /**
+     * Returned from {@link #hitTest(int, int, int)} when no splitter is hit.
+     */
+    public static final int HIT_NONE = 0;
+
+    /**
+     * The vertical splitter between the columns, which moves along x.
+     */
+    public static final int HIT_COLUMNS = 1;
+
+    /**
+     * The horizontal splitter between the rows, which moves along y.
+     */
+    public static final int HIT_ROWS = 2;
+
+    /**
+     * The intersection of both splitters, which moves along both axes.
+     */
+    public static final int HIT_CROSS = HIT_COLUMNS | HIT_ROWS;
+
+    private final MultiSplitGeometry mColumns = new MultiSplitGeometry();
+    private final MultiSplitGeometry mRows = new MultiSplitGeometry();
+
+    /**
+     * Gets the geometry of the vertical splitter, along x.
+     *
+     * @return the geometry of the columns
+     */
+    public MultiSplitGeometry getColumns() {
+        return mColumns;
+    }
+
+    /**
+     * Gets the geometry of the horizontal splitter, along y.
+     *
+     * @return the geometry of the rows
+     */
+    public MultiSplitGeometry getRows() {
+        return mRows;
+    }
+
+    /**
+     * Sets the size of both splitters, in pixels.
+     *
+     * @param splitterSize the size of the splitters
+     */
+    public void setSplitterSize(int splitterSize) {
+        mColumns.setSplitterSize(splitterSize);
+        mRows.setSplitterSize(splitterSize);
+    }
+
+    /**
+     * Sets the minimum size of columns and rows without one of their own, in pixels.
+     *
+     * @param paneSizeMin the minimum size of panes
+     */
+    public void setPaneSizeMin(int paneSizeMin) {
+        mColumns.setPaneSizeMin(paneSizeMin);
+        mRows.setPaneSizeMin(paneSizeMin);
+    }
+
+    /**
+     * Sets the minimum size of columns and rows without one of their own, as a
+     * fraction of the axis, which overrides the pixel size when it is not negative.
+     *
+     * @param paneSizeMinPercent the minimum size of panes as a fraction, or a negative value
+     */
+    public void setPaneSizeMinPercent(float paneSizeMinPercent) {
+        mColumns.setPaneSizeMinPercent(paneSizeMinPercent);
+        mRows.setPaneSizeMinPercent(paneSizeMinPercent);
+    }
+
+    /**
+     * Sets the maximum size of columns and rows without one of their own, in pixels.
+     *
+     * @param paneSizeMax the maximum size of panes, or a negative value for no maximum
+     */
+    public void setPaneSizeMax(int paneSizeMax) {
+        mColumns.setPaneSizeMax(paneSizeMax);
+        mRows.setPaneSizeMax(paneSizeMax);
+    }
+
+    /**
+     * Sets the maximum size of columns and rows without one of their own, as a
+     * fraction of the axis, which overrides the pixel size when it is not negative.
+     *
+     * @param paneSizeMaxPercent the maximum size of panes as a fraction, or a negative value
+     */
+    public void setPaneSizeMaxPercent(float paneSizeMaxPercent) {
+        mColumns.setPaneSizeMaxPercent(paneSizeMaxPercent);
+        mRows.setPaneSizeMaxPercent(paneSizeMaxPercent);
+    }
+
+    /**
+     * Resolves both splitters for the given size.
+     *
+     * @param width  the width of the grid
+     * @param height the height of the grid
+     */
+    public void layout(int width, int height) {
+        mColumns.setLength(width);
+        mRows.setLength(height);
+        mColumns.resolve();
+        mRows.resolve();
+    }
+
+    /**
+     * Finds the splitters under a point with a single pass over the two splitter
+     * bands. A point inside both bands hits the intersection.
+     *
+     * @param x    the x coordinate
+     * @param y    the y coordinate
+     * @param slop the distance to extend each band by on both sides
+     * @return a combination of {@link #HIT_COLUMNS} and {@link #HIT_ROWS}, or {@link #HIT_NONE}
+     */
+    public int hitTest(int x, int y, int slop) {
+        int hit = HIT_NONE;
+        if (MultiSplitGeometry.between(x, mColumns.getSplitterStart(0) - slop, mColumns.getSplitterEnd(0) + slop)) {
+            hit |= HIT_COLUMNS;
+        }
+        if (MultiSplitGeometry.between(y, mRows.getSplitterStart(0) - slop, mRows.getSplitterEnd(0) + slop)) {
+            hit |= HIT_ROWS;
+        }
+        return hit;
+    }
+
+    /**
+     * Moves the hit splitters to a point, keeping them within their allowed ranges.
+     * Splitters which are not part of the hit are left alone. Moving the splitter of
+     * a collapsed column or row pulls it open again.
+     *
+     * @param hit the splitters to move, as returned from {@link #hitTest(int, int, int)}
+     * @param x   the desired position of the vertical splitter
+     * @param y   the desired position of the horizontal splitter
+     * @return the splitters which actually moved
+     */
+    public int moveTo(int hit, int x, int y) {
+        int moved = HIT_NONE;
+        if ((hit & HIT_COLUMNS) != 0 && moveTo(mColumns, x)) {
+            moved |= HIT_COLUMNS;
+        }
+        if ((hit & HIT_ROWS) != 0 && moveTo(mRows, y)) {
+            moved |= HIT_ROWS;
+        }
+        return moved;
+    }
+
+    private static boolean moveTo(MultiSplitGeometry axis, int position) {
+        if (axis.clampPosition(0, position) == axis.getPosition(0)) {
+            return false;
+        }
+        axis.markPaneCollapsed(0, false);
+        axis.markPaneCollapsed(1, false);
+        axis.moveTo(0, position);
+        return true;
+    }
+
+    /**
+     * Gets whether a pane is collapsed, because its column or its row is.
+     *
+     * @param pane the pane
+     * @return whether the pane is collapsed
+     */
+    public boolean isPaneCollapsed(int pane) {
+        return mColumns.isPaneCollapsed(pane & 1) || mRows.isPaneCollapsed(pane >> 1);
+    }
+
+    public int getLeft(int pane) {
+        return mColumns.getPaneStart(pane & 1);
+    }
+
+    public int getTop(int pane) {
+        return mRows.getPaneStart(pane >> 1);
+    }
+
+    public int getRight(int pane) {
+        return mColumns.getPaneEnd(pane & 1);
+    }
+
+    public int getBottom(int pane) {
+        return mRows.getPaneEnd(pane >> 1);
+    }
+
+    /**
+     * Gets the width of a pane, never negative even if the splitter does not fit.
+     *
+     * @param pane the pane
+     * @return the width of the pane
+     */
+    public int getWidth(int pane) {
+        return mColumns.getPaneSize(pane & 1);
+    }
+
+    /**
+     * Gets the height of a pane, never negative even if the splitter does not fit.
+     *
+     * @param pane the pane
+     * @return the height of the pane
+     */
+    public int getHeight(int pane) {
+        return mRows.getPaneSize(pane >> 1);
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.core;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Hands splitter positions from any number of threads over to the thread which
+ * applies them, usually the UI thread.
+ * <p/>
+ * Each splitter has one slot holding only its latest position. Posting never
+ * blocks and never queues: a position replaces whatever the slot held, so a burst
+ * of posts between two drains costs a single apply with the latest values, and the
+ * values in between are dropped. A post reports whether the consumer needs to be
+ * scheduled, which is the case for the first post after each drain only.
+ */
+public final class SplitPositionMailbox {
+
+    /**
+     * Receives the positions taken by {@link #drain(Receiver)}.
+     */
+    public interface Receiver {
+        void onPosition(int splitter, int position);
+
+        void onPositionPercent(int splitter, float position);
+    }
+
+    private static final long EMPTY = 0;
+    private static final long KIND_MASK = 0xFFFFFFFF00000000L;
+    private static final long KIND_PIXELS = 1L << 32;
+    private static final long KIND_PERCENT = 2L << 32;
+
+    private final AtomicLongArray mSlots;
+    private final AtomicBoolean mScheduled = new AtomicBoolean();
+
+    /**
+     * Creates a mailbox.
+     *
+     * @param capacity the number of splitters positions can be posted for
+     */
+    public SplitPositionMailbox(int capacity) {
+        mSlots = new AtomicLongArray(capacity);
+    }
+
+    public int getCapacity() {
+        return mSlots.length();
+    }
+
+    /**
+     * Posts a position in pixels. Safe to call from any thread.
+     *
+     * @param splitter the index of the splitter
+     * @param position the position, in pixels
+     * @return whether the consumer has to be scheduled to drain the mailbox
+     */
+    public boolean postPosition(int splitter, int position) {
+        checkSplitter(splitter);
+        mSlots.set(splitter, KIND_PIXELS | (position & 0xFFFFFFFFL));
+        return mScheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Posts a position as a fraction. Safe to call from any thread.
+     *
+     * @param splitter the index of the splitter
+     * @param position the position, as a fraction between 0 and 1
+     * @return whether the consumer has to be scheduled to drain the mailbox
+     */
+    public boolean postPositionPercent(int splitter, float position) {
+        checkSplitter(splitter);
+        mSlots.set(splitter, KIND_PERCENT | (Float.floatToIntBits(position) & 0xFFFFFFFFL));
+        return mScheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Takes the latest position of every splitter which has one and passes it on.
+     * Positions posted while draining are either taken by this drain or schedule
+     * the next one, so none is lost.
+     *
+     * @param receiver the receiver of the positions
+     * @return whether any position was taken
+     */
+    public boolean drain(Receiver receiver) {
+        // Cleared first, so a post racing with the drain schedules another
+        mScheduled.set(false);
+        boolean taken = false;
+        int capacity = mSlots.length();
+        for (int i = 0; i < capacity; i++) {
+            if (mSlots.get(i) == EMPTY) {
+                continue;
+            }
+            long value = mSlots.getAndSet(i, EMPTY);
+            int bits = (int) value;
+            if ((value & KIND_MASK) == KIND_PIXELS) {
+                receiver.onPosition(i, bits);
+                taken = true;
+            } else if ((value & KIND_MASK) == KIND_PERCENT) {
+                receiver.onPositionPercent(i, Float.intBitsToFloat(bits));
+                taken = true;
+            }
+        }
+        return taken;
+    }
+
+    private void checkSplitter(int splitter) {
+        if (splitter < 0 || splitter >= mSlots.length()) {
+            throw new IndexOutOfBoundsException("Invalid splitter index " + splitter + ", capacity is " + mSlots.length());
+        }
+    }
+
+}
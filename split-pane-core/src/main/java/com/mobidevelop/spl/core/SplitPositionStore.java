@@ -0,0 +1,413 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Persists splitter positions across process restarts, keyed by a string such as
+ * the id of a layout.
+ * <p/>
+ * The file is read on a background thread as soon as the store is created, so it
+ * is usually loaded by the time the first layout asks for its positions; callers
+ * which must not wait for it use {@link #whenLoaded(OnLoadedListener)}. Changes
+ * are kept in memory and written in one batch shortly after the last change, on
+ * the same background thread. Writes go to a temporary file which then replaces
+ * the store, so a crash mid-write leaves the previous contents intact.
+ * <p/>
+ * All stores share a single background thread, which only runs while a store has
+ * work queued. Close a store with {@link #close()} once it is no longer used.
+ */
+public final class SplitPositionStore implements Closeable {
+
+    /**
+     * Notified once the file of a store has been read.
+     */
+    public interface OnLoadedListener {
+        void onLoaded(SplitPositionStore store);
+    }
+
+    private static final int VERSION = 1;
+    private static final long WRITE_DELAY_MILLIS = 500;
+
+    private static final long KEEP_ALIVE_MILLIS = 1000;
+
+    // Shared by all stores, so writes and reads of the same file stay in order
+    private static final ScheduledThreadPoolExecutor sExecutor = createExecutor();
+
+    private final File mFile;
+    private final File mTempFile;
+    private final Future<?> mLoad;
+
+    // A null value marks a key removed before the file was read, so reading does not bring it back
+    private final Map<String, float[]> mPositions = new HashMap<String, float[]>();
+    private boolean mWritePending = false;
+    private boolean mLoaded = false;
+    private boolean mClosed = false;
+    private List<OnLoadedListener> mLoadedListeners = new ArrayList<OnLoadedListener>();
+
+    private final Runnable mWrite = new Runnable() {
+        @Override
+        public void run() {
+            write();
+        }
+    };
+
+    /**
+     * Creates a store backed by a file, and starts reading it in the background.
+     *
+     * @param file the file to keep the positions in
+     */
+    public SplitPositionStore(File file) {
+        mFile = file;
+        mTempFile = new File(file.getPath() + ".tmp");
+        mLoad = sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    read();
+                } finally {
+                    onLoaded();
+                }
+            }
+        });
+    }
+
+    /**
+     * Gets whether the file has been read, in which case {@link #get(String)} returns
+     * right away.
+     *
+     * @return whether the file has been read
+     */
+    public boolean isLoaded() {
+        synchronized (mPositions) {
+            return mLoaded;
+        }
+    }
+
+    /**
+     * Calls a listener once the file has been read: right away on the calling thread
+     * if it already has been, otherwise later on the background thread of the store.
+     *
+     * @param listener the listener to notify
+     */
+    public void whenLoaded(OnLoadedListener listener) {
+        synchronized (mPositions) {
+            if (!mLoaded) {
+                mLoadedListeners.add(listener);
+                return;
+            }
+        }
+        listener.onLoaded(this);
+    }
+
+    /**
+     * Waits a bounded time for the file to be read, for callers which cannot wait
+     * indefinitely, such as a layout restoring its positions while it is measured.
+     *
+     * @param timeout the longest time to wait
+     * @param unit    the unit of the timeout
+     * @return whether the file has been read, in which case {@link #get(String)}
+     * returns right away
+     */
+    public boolean awaitLoaded(long timeout, TimeUnit unit) {
+        synchronized (mPositions) {
+            if (mLoaded) {
+                return true;
+            }
+        }
+        try {
+            mLoad.get(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Unreadable stores start out empty
+        } catch (TimeoutException e) {
+            return false;
+        }
+        return isLoaded();
+    }
+
+    /**
+     * Gets the positions stored for a key, waiting for the file to be read if it
+     * has not been yet. Avoid calling this on the UI thread before the store
+     * {@link #isLoaded() is loaded}.
+     *
+     * @param key the key the positions were stored with
+     * @return a copy of the splitter fractions, or null if nothing is stored
+     */
+    public float[] get(String key) {
+        awaitLoad();
+        synchronized (mPositions) {
+            float[] positions = mPositions.get(key);
+            return positions != null ? Arrays.copyOf(positions, positions.length) : null;
+        }
+    }
+
+    /**
+     * Stores the positions for a key. The file is written in the background shortly
+     * after, together with any other changes made in the meantime.
+     *
+     * @param key       the key to store the positions with
+     * @param positions the splitter fractions
+     */
+    public void put(String key, float[] positions) {
+        float[] copy = Arrays.copyOf(positions, positions.length);
+        synchronized (mPositions) {
+            checkOpen();
+            float[] previous = mPositions.put(key, copy);
+            if (Arrays.equals(previous, copy) || mWritePending) {
+                return;
+            }
+            mWritePending = true;
+        }
+        sExecutor.schedule(mWrite, WRITE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Removes the positions stored for a key.
+     *
+     * @param key the key the positions were stored with
+     */
+    public void remove(String key) {
+        synchronized (mPositions) {
+            checkOpen();
+            if (mLoaded) {
+                if (mPositions.remove(key) == null || mWritePending) {
+                    return;
+                }
+            } else {
+                mPositions.put(key, null);
+                if (mWritePending) {
+                    return;
+                }
+            }
+            mWritePending = true;
+        }
+        sExecutor.schedule(mWrite, WRITE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes any pending changes right away and waits for them to reach the file.
+     */
+    public void flush() {
+        synchronized (mPositions) {
+            checkOpen();
+        }
+        try {
+            sExecutor.submit(mWrite).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Closes the store. Pending changes are still written, in the background, ahead of
+     * the read of any store opened afterwards; the store can no longer be changed.
+     * Closing a closed store does nothing.
+     */
+    @Override
+    public void close() {
+        synchronized (mPositions) {
+            if (mClosed) {
+                return;
+            }
+            mClosed = true;
+        }
+        sExecutor.execute(mWrite);
+    }
+
+    private void checkOpen() {
+        if (mClosed) {
+            throw new IllegalStateException("The store is closed.");
+        }
+    }
+
+    private void onLoaded() {
+        List<OnLoadedListener> listeners;
+        synchronized (mPositions) {
+            mLoaded = true;
+            mPositions.values().removeAll(Collections.singleton(null));
+            listeners = mLoadedListeners;
+            mLoadedListeners = null;
+        }
+        for (OnLoadedListener listener : listeners) {
+            listener.onLoaded(this);
+        }
+    }
+
+    private void awaitLoad() {
+        synchronized (mPositions) {
+            // Also covers listeners notified from within the load itself
+            if (mLoaded) {
+                return;
+            }
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                mLoad.get();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (ExecutionException e) {
+                // Unreadable stores start out empty
+                break;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void read() {
+        if (!mFile.exists()) {
+            return;
+        }
+        Map<String, float[]> positions = new HashMap<String, float[]>();
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(mFile)));
+            if (in.readInt() != VERSION) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                float[] values = new float[in.readInt()];
+                for (int j = 0; j < values.length; j++) {
+                    values[j] = in.readFloat();
+                }
+                positions.put(key, values);
+            }
+        } catch (IOException e) {
+            // A corrupt store is discarded rather than partially applied
+            return;
+        } finally {
+            closeQuietly(in);
+        }
+        synchronized (mPositions) {
+            // Anything put while reading is newer than the file
+            for (Map.Entry<String, float[]> entry : positions.entrySet()) {
+                if (!mPositions.containsKey(entry.getKey())) {
+                    mPositions.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    private void write() {
+        Map<String, float[]> snapshot;
+        synchronized (mPositions) {
+            if (!mWritePending) {
+                return;
+            }
+            mWritePending = false;
+            snapshot = new HashMap<String, float[]>(mPositions);
+        }
+        FileOutputStream fileOut = null;
+        try {
+            File parent = mFile.getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            fileOut = new FileOutputStream(mTempFile);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut));
+            int count = 0;
+            for (float[] values : snapshot.values()) {
+                if (values != null) {
+                    count++;
+                }
+            }
+            out.writeInt(VERSION);
+            out.writeInt(count);
+            for (Map.Entry<String, float[]> entry : snapshot.entrySet()) {
+                float[] values = entry.getValue();
+                if (values == null) {
+                    continue;
+                }
+                out.writeUTF(entry.getKey());
+                out.writeInt(values.length);
+                for (float value : values) {
+                    out.writeFloat(value);
+                }
+            }
+            out.flush();
+            fileOut.getFD().sync();
+            fileOut.close();
+            fileOut = null;
+            if (!mTempFile.renameTo(mFile)) {
+                throw new IOException("Failed to replace " + mFile);
+            }
+        } catch (IOException e) {
+            // The previous file is untouched, the next change tries again
+            mTempFile.delete();
+        } finally {
+            closeQuietly(fileOut);
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor createExecutor() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "SplitPositionStore");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        // The thread goes away while no store has work queued, and comes back for the next task
+        executor.setKeepAliveTime(KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+}
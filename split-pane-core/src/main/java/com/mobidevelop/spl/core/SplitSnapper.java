@@ -0,0 +1,148 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.core;
+
+import java.util.Arrays;
+
+/**
+ * Picks where a released splitter comes to rest.
+ * <p/>
+ * The release velocity is projected forward with a constant deceleration; the
+ * splitter then settles on the snap point closest to the projected position, or
+ * on the projected position itself when there are no snap points. Snap points
+ * are given in pixels, as fractions of the length, and optionally at both ends of
+ * the allowed range, which collapses a pane to its minimum size.
+ */
+public final class SplitSnapper {
+
+    /**
+     * Default deceleration applied to a fling, in pixels per second squared.
+     */
+    public static final float DEFAULT_DECELERATION = 8000f;
+
+    private float[] mFractions = new float[0];
+    private int[] mPixels = new int[0];
+    private boolean mSnapToEdges = false;
+    private float mDeceleration = DEFAULT_DECELERATION;
+
+    /**
+     * Sets snap points as fractions of the length.
+     *
+     * @param fractions the snap points, between 0 and 1, or null for none
+     */
+    public void setFractions(float[] fractions) {
+        mFractions = fractions != null ? Arrays.copyOf(fractions, fractions.length) : new float[0];
+    }
+
+    public float[] getFractions() {
+        return Arrays.copyOf(mFractions, mFractions.length);
+    }
+
+    /**
+     * Sets snap points in pixels.
+     *
+     * @param pixels the snap points, or null for none
+     */
+    public void setPixels(int[] pixels) {
+        mPixels = pixels != null ? Arrays.copyOf(pixels, pixels.length) : new int[0];
+    }
+
+    public int[] getPixels() {
+        return Arrays.copyOf(mPixels, mPixels.length);
+    }
+
+    /**
+     * Sets whether the ends of the allowed range are snap points, collapsing either
+     * pane to its minimum size.
+     *
+     * @param snapToEdges whether to snap to the ends of the allowed range
+     */
+    public void setSnapToEdges(boolean snapToEdges) {
+        mSnapToEdges = snapToEdges;
+    }
+
+    public boolean isSnapToEdges() {
+        return mSnapToEdges;
+    }
+
+    public void setDeceleration(float deceleration) {
+        mDeceleration = deceleration > 0 ? deceleration : DEFAULT_DECELERATION;
+    }
+
+    public float getDeceleration() {
+        return mDeceleration;
+    }
+
+    public boolean hasSnapPoints() {
+        return mSnapToEdges || mFractions.length > 0 || mPixels.length > 0;
+    }
+
+    /**
+     * Projects a release forward until the velocity has decayed to zero.
+     *
+     * @param position the release position
+     * @param velocity the release velocity, in pixels per second
+     * @return the projected position
+     */
+    public int project(int position, float velocity) {
+        return position + (int) (velocity * Math.abs(velocity) / (2f * mDeceleration));
+    }
+
+    /**
+     * Finds where a released splitter comes to rest.
+     *
+     * @param position the release position
+     * @param velocity the release velocity, in pixels per second
+     * @param min      the smallest allowed position
+     * @param max      the largest allowed position
+     * @param length   the length of the axis, used to resolve fractions
+     * @return the resting position, between min and max
+     */
+    public int findTarget(int position, float velocity, int min, int max, int length) {
+        int projected = MultiSplitGeometry.clamp(project(position, velocity), min, max);
+        if (!hasSnapPoints()) {
+            return projected;
+        }
+        int best = projected;
+        int bestDistance = Integer.MAX_VALUE;
+        if (mSnapToEdges) {
+            best = Math.abs(projected - min) <= Math.abs(projected - max) ? min : max;
+            bestDistance = Math.abs(projected - best);
+        }
+        for (int i = 0; i < mFractions.length; i++) {
+            int candidate = MultiSplitGeometry.clamp(MultiSplitGeometry.toPixels(mFractions[i], length), min, max);
+            int distance = Math.abs(projected - candidate);
+            if (distance < bestDistance) {
+                best = candidate;
+                bestDistance = distance;
+            }
+        }
+        for (int i = 0; i < mPixels.length; i++) {
+            int candidate = MultiSplitGeometry.clamp(mPixels[i], min, max);
+            int distance = Math.abs(projected - candidate);
+            if (distance < bestDistance) {
+                best = candidate;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+}
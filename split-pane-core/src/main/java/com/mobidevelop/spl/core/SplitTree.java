@@ -0,0 +1,594 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.core;
+
+import java.util.Arrays;
+
+/**
+ * A binary tree of splits, laid out in a single pass.
+ * <p/>
+ * Split nodes divide their rectangle horizontally or vertically at a pixel
+ * position or a fraction, just like a SplitPaneLayout; leaf nodes refer to a pane
+ * by index. Nodes are identified by ints and stored in flat arrays, so laying out
+ * and hit testing the tree does not allocate.
+ * <p/>
+ * Trees can be built in code:
+ * <pre>
+ * SplitTree tree = new SplitTree();
+ * tree.setRoot(tree.splitPercent(SplitTree.ORIENTATION_HORIZONTAL, 0.25f,
+ *         tree.leaf(0),
+ *         tree.splitPercent(SplitTree.ORIENTATION_VERTICAL, 0.7f, tree.leaf(1), tree.leaf(2))));
+ * </pre>
+ * or parsed from the equivalent spec {@code "h(25%, 0, v(70%, 1, 2))"}, see
+ * {@link #parse(String)}.
+ */
+public final class SplitTree {
+
+    public static final int ORIENTATION_HORIZONTAL = 0;
+    public static final int ORIENTATION_VERTICAL = 1;
+
+    /**
+     * Returned when there is no node, for example from {@link #hitTest(int, int, int)}.
+     */
+    public static final int NO_NODE = -1;
+
+    private static final int LEAF = -1;
+
+    private int mNodeCount = 0;
+    private int mLeafCount = 0;
+    private int mRoot = NO_NODE;
+
+    // Per node
+    private int[] mOrientations = new int[8];
+    private int[] mFirst = new int[8];
+    private int[] mSecond = new int[8];
+    private int[] mPanes = new int[8];
+    private int[] mPositions = new int[8];
+    private float[] mPercents = new float[8];
+    private int[] mLeft = new int[8];
+    private int[] mTop = new int[8];
+    private int[] mRight = new int[8];
+    private int[] mBottom = new int[8];
+
+    // Split nodes in layout order, for drawing and hit testing
+    private int mSplitCount = 0;
+    private int[] mSplits = new int[8];
+
+    // Leaf node of each pane
+    private int[] mPaneNodes = new int[8];
+
+    private int mSplitterSize = 0;
+    private int mPaneSizeMin = 0;
+    private float mPaneSizeMinPercent = -1;
+
+    /**
+     * Adds a leaf node.
+     *
+     * @param pane the index of the pane shown by the leaf
+     * @return the new node
+     */
+    public int leaf(int pane) {
+        int node = addNode(LEAF, NO_NODE, NO_NODE);
+        mPanes[node] = pane;
+        return node;
+    }
+
+    /**
+     * Adds a split node positioned at a fraction of its length.
+     *
+     * @param orientation {@link #ORIENTATION_HORIZONTAL} or {@link #ORIENTATION_VERTICAL}
+     * @param percent     the position of the splitter, between 0 and 1
+     * @param first       the node before the splitter
+     * @param second      the node after the splitter
+     * @return the new node
+     */
+    public int splitPercent(int orientation, float percent, int first, int second) {
+        int node = addNode(orientation, first, second);
+        mPercents[node] = MultiSplitGeometry.clamp(percent, 0, 1);
+        return node;
+    }
+
+    /**
+     * Adds a split node positioned at a pixel offset from its start.
+     *
+     * @param orientation {@link #ORIENTATION_HORIZONTAL} or {@link #ORIENTATION_VERTICAL}
+     * @param position    the position of the splitter, in pixels from the start of the node
+     * @param first       the node before the splitter
+     * @param second      the node after the splitter
+     * @return the new node
+     */
+    public int splitPixels(int orientation, int position, int first, int second) {
+        int node = addNode(orientation, first, second);
+        mPositions[node] = Math.max(0, position);
+        return node;
+    }
+
+    /**
+     * Sets the root of the tree and validates it. Every node may only be used once,
+     * and every pane from 0 to the number of leaves minus one must be shown by
+     * exactly one leaf.
+     *
+     * @param root the root node
+     * @throws IllegalArgumentException if the tree is invalid
+     */
+    public void setRoot(int root) {
+        checkNode(root);
+        boolean[] used = new boolean[mNodeCount];
+        int leaves = countLeaves(root, used);
+        if (mPaneNodes.length < leaves) {
+            mPaneNodes = new int[leaves];
+        }
+        Arrays.fill(mPaneNodes, NO_NODE);
+        for (int node = 0; node < mNodeCount; node++) {
+            if (mOrientations[node] == LEAF && used[node]) {
+                int pane = mPanes[node];
+                if (pane < 0 || pane >= leaves || mPaneNodes[pane] != NO_NODE) {
+                    throw new IllegalArgumentException("Panes must be numbered 0 to " + (leaves - 1) + " without duplicates, found " + pane + ".");
+                }
+                mPaneNodes[pane] = node;
+            }
+        }
+        mRoot = root;
+        mLeafCount = leaves;
+        mSplitCount = 0;
+        collectSplits(root);
+    }
+
+    public int getRoot() {
+        return mRoot;
+    }
+
+    public int getPaneCount() {
+        return mLeafCount;
+    }
+
+    public int getSplitterCount() {
+        return mSplitCount;
+    }
+
+    /**
+     * Gets a split node by its index among the splitters.
+     *
+     * @param index the index of the splitter
+     * @return the split node
+     */
+    public int getSplitterNode(int index) {
+        return mSplits[index];
+    }
+
+    /**
+     * Gets the leaf node showing a pane.
+     *
+     * @param pane the index of the pane
+     * @return the leaf node
+     */
+    public int getPaneNode(int pane) {
+        return mPaneNodes[pane];
+    }
+
+    public boolean isLeaf(int node) {
+        return mOrientations[node] == LEAF;
+    }
+
+    public int getOrientation(int node) {
+        return mOrientations[node];
+    }
+
+    public int getSplitterSize() {
+        return mSplitterSize;
+    }
+
+    public void setSplitterSize(int splitterSize) {
+        mSplitterSize = splitterSize;
+    }
+
+    public int getPaneSizeMin() {
+        return mPaneSizeMin;
+    }
+
+    public void setPaneSizeMin(int paneSizeMin) {
+        mPaneSizeMin = paneSizeMin;
+    }
+
+    public float getPaneSizeMinPercent() {
+        return mPaneSizeMinPercent;
+    }
+
+    /**
+     * Sets the minimum size of panes as a fraction of the split being resized. When set to a
+     * value of 0 or more this takes precedence over the pixel minimum.
+     *
+     * @param paneSizeMinPercent the fraction, or a negative value to use the pixel minimum
+     */
+    public void setPaneSizeMinPercent(float paneSizeMinPercent) {
+        mPaneSizeMinPercent = paneSizeMinPercent;
+    }
+
+    /**
+     * Lays out every node of the tree within the given size.
+     *
+     * @param width  the width available to the root
+     * @param height the height available to the root
+     */
+    public void layout(int width, int height) {
+        if (mRoot != NO_NODE) {
+            layout(mRoot, 0, 0, width, height);
+        }
+    }
+
+    private void layout(int node, int left, int top, int right, int bottom) {
+        mLeft[node] = left;
+        mTop[node] = top;
+        mRight[node] = right;
+        mBottom[node] = bottom;
+        int orientation = mOrientations[node];
+        if (orientation == LEAF) {
+            return;
+        }
+        int position = getPosition(node);
+        int half = mSplitterSize / 2;
+        if (orientation == ORIENTATION_HORIZONTAL) {
+            layout(mFirst[node], left, top, Math.max(left, position - half), bottom);
+            layout(mSecond[node], Math.min(right, position + half), top, right, bottom);
+        } else {
+            layout(mFirst[node], left, top, right, Math.max(top, position - half));
+            layout(mSecond[node], left, Math.min(bottom, position + half), right, bottom);
+        }
+    }
+
+    /**
+     * Gets the absolute position of a split node's splitter, as of the last layout.
+     *
+     * @param node the split node
+     * @return the position of the splitter
+     */
+    public int getPosition(int node) {
+        int start = getStart(node);
+        int length = getEnd(node) - start;
+        int position = mPositions[node] != MultiSplitGeometry.POSITION_UNSET
+                ? mPositions[node]
+                : MultiSplitGeometry.toPixels(mPercents[node], length);
+        return start + clampRelative(position, length);
+    }
+
+    /**
+     * Gets the position of a split node's splitter as a fraction of the node.
+     *
+     * @param node the split node
+     * @return the position as a fraction
+     */
+    public float getPositionPercent(int node) {
+        if (mPositions[node] == MultiSplitGeometry.POSITION_UNSET) {
+            return mPercents[node];
+        }
+        int length = getEnd(node) - getStart(node);
+        return length > 0 ? MultiSplitGeometry.toFraction(getPosition(node) - getStart(node), length) : 0;
+    }
+
+    /**
+     * Moves a split node's splitter to an absolute position, keeping both sides
+     * at least the minimum pane size. Nodes declared in pixels stay in pixels,
+     * others keep a fraction so they scale with the tree. Call {@link #layout(int, int)}
+     * afterwards to update the descendants.
+     *
+     * @param node     the split node
+     * @param position the desired absolute position of the splitter
+     * @return the resulting absolute position
+     */
+    public int moveTo(int node, int position) {
+        int start = getStart(node);
+        int length = getEnd(node) - start;
+        int relative = clampRelative(position - start, length);
+        if (mPositions[node] != MultiSplitGeometry.POSITION_UNSET) {
+            mPositions[node] = relative;
+        } else if (length > 0) {
+            mPercents[node] = MultiSplitGeometry.toFraction(relative, length);
+        }
+        return start + relative;
+    }
+
+    /**
+     * Sets a split node's splitter to a fraction of the node.
+     *
+     * @param node    the split node
+     * @param percent the position, between 0 and 1
+     */
+    public void setPositionPercent(int node, float percent) {
+        mPositions[node] = MultiSplitGeometry.POSITION_UNSET;
+        mPercents[node] = MultiSplitGeometry.clamp(percent, 0, 1);
+    }
+
+    /**
+     * Clamps an absolute position to the range allowed for a split node.
+     *
+     * @param node     the split node
+     * @param position the candidate position
+     * @return the clamped position
+     */
+    public int clampPosition(int node, int position) {
+        int start = getStart(node);
+        return start + clampRelative(position - start, getEnd(node) - start);
+    }
+
+    public int getLeft(int node) {
+        return mLeft[node];
+    }
+
+    public int getTop(int node) {
+        return mTop[node];
+    }
+
+    public int getRight(int node) {
+        return mRight[node];
+    }
+
+    public int getBottom(int node) {
+        return mBottom[node];
+    }
+
+    /**
+     * Gets the leading edge of a split node's splitter along its axis.
+     */
+    public int getSplitterStart(int node) {
+        return getPosition(node) - (mSplitterSize / 2);
+    }
+
+    /**
+     * Gets the trailing edge of a split node's splitter along its axis.
+     */
+    public int getSplitterEnd(int node) {
+        return getPosition(node) + (mSplitterSize / 2);
+    }
+
+    /**
+     * Finds the splitter under a point with a single pass over all splitters. Where
+     * touch areas overlap, such as at a T junction, the closest splitter wins.
+     *
+     * @param x    the x coordinate
+     * @param y    the y coordinate
+     * @param slop the distance to extend each splitter's bounds by along its axis
+     * @return the split node, or {@link #NO_NODE}
+     */
+    public int hitTest(int x, int y, int slop) {
+        int best = NO_NODE;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < mSplitCount; i++) {
+            int node = mSplits[i];
+            int along;
+            int across;
+            int acrossStart;
+            int acrossEnd;
+            if (mOrientations[node] == ORIENTATION_HORIZONTAL) {
+                along = x;
+                across = y;
+                acrossStart = mTop[node];
+                acrossEnd = mBottom[node];
+            } else {
+                along = y;
+                across = x;
+                acrossStart = mLeft[node];
+                acrossEnd = mRight[node];
+            }
+            if (across < acrossStart || across >= acrossEnd) {
+                continue;
+            }
+            if (along >= getSplitterStart(node) - slop && along <= getSplitterEnd(node) + slop) {
+                int distance = Math.abs(along - getPosition(node));
+                if (distance < bestDistance) {
+                    best = node;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Parses a tree spec. A node is either a pane index, or a split written as
+     * {@code h(position, first, second)} or {@code v(position, first, second)}
+     * where the position is a percentage such as {@code 25%} or pixels such as
+     * {@code 120px}. Whitespace is ignored.
+     *
+     * @param spec the tree spec
+     * @return the parsed tree
+     * @throws IllegalArgumentException if the spec is malformed
+     */
+    public static SplitTree parse(String spec) {
+        SplitTree tree = new SplitTree();
+        Parser parser = new Parser(tree, spec);
+        int root = parser.parseNode();
+        parser.skipWhitespace();
+        if (parser.mIndex != spec.length()) {
+            throw parser.error("Unexpected trailing input");
+        }
+        tree.setRoot(root);
+        return tree;
+    }
+
+    private int getStart(int node) {
+        return mOrientations[node] == ORIENTATION_HORIZONTAL ? mLeft[node] : mTop[node];
+    }
+
+    private int getEnd(int node) {
+        return mOrientations[node] == ORIENTATION_HORIZONTAL ? mRight[node] : mBottom[node];
+    }
+
+    private int clampRelative(int position, int length) {
+        if (length <= 0) {
+            return 0;
+        }
+        int min = mPaneSizeMinPercent >= 0 ? (int) (length * mPaneSizeMinPercent) : mPaneSizeMin;
+        return MultiSplitGeometry.clamp(position, Math.min(min, length), Math.max(length - min, 0));
+    }
+
+    private int addNode(int orientation, int first, int second) {
+        if (orientation != LEAF) {
+            if (orientation != ORIENTATION_HORIZONTAL && orientation != ORIENTATION_VERTICAL) {
+                throw new IllegalArgumentException("Invalid orientation " + orientation + ".");
+            }
+            checkNode(first);
+            checkNode(second);
+        }
+        if (mNodeCount == mOrientations.length) {
+            int capacity = mNodeCount * 2;
+            mOrientations = Arrays.copyOf(mOrientations, capacity);
+            mFirst = Arrays.copyOf(mFirst, capacity);
+            mSecond = Arrays.copyOf(mSecond, capacity);
+            mPanes = Arrays.copyOf(mPanes, capacity);
+            mPositions = Arrays.copyOf(mPositions, capacity);
+            mPercents = Arrays.copyOf(mPercents, capacity);
+            mLeft = Arrays.copyOf(mLeft, capacity);
+            mTop = Arrays.copyOf(mTop, capacity);
+            mRight = Arrays.copyOf(mRight, capacity);
+            mBottom = Arrays.copyOf(mBottom, capacity);
+            mSplits = Arrays.copyOf(mSplits, capacity);
+        }
+        int node = mNodeCount++;
+        mOrientations[node] = orientation;
+        mFirst[node] = first;
+        mSecond[node] = second;
+        mPanes[node] = -1;
+        mPositions[node] = MultiSplitGeometry.POSITION_UNSET;
+        mPercents[node] = 0.5f;
+        return node;
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= mNodeCount) {
+            throw new IllegalArgumentException("Invalid node " + node + ".");
+        }
+    }
+
+    /**
+     * Counts the leaves below a node, marking every node on the way. Reaching a
+     * marked node again means it is shared between two parents or part of a cycle.
+     */
+    private int countLeaves(int node, boolean[] used) {
+        if (used[node]) {
+            throw new IllegalArgumentException("Node " + node + " is used more than once.");
+        }
+        used[node] = true;
+        if (mOrientations[node] == LEAF) {
+            return 1;
+        }
+        return countLeaves(mFirst[node], used) + countLeaves(mSecond[node], used);
+    }
+
+    private void collectSplits(int node) {
+        if (mOrientations[node] == LEAF) {
+            return;
+        }
+        mSplits[mSplitCount++] = node;
+        collectSplits(mFirst[node]);
+        collectSplits(mSecond[node]);
+    }
+
+    private static final class Parser {
+        private final SplitTree mTree;
+        private final String mSpec;
+        private int mIndex;
+
+        Parser(SplitTree tree, String spec) {
+            mTree = tree;
+            mSpec = spec;
+        }
+
+        int parseNode() {
+            skipWhitespace();
+            if (mIndex >= mSpec.length()) {
+                throw error("Unexpected end of input");
+            }
+            char c = Character.toLowerCase(mSpec.charAt(mIndex));
+            if (c == 'h' || c == 'v') {
+                mIndex++;
+                int orientation = c == 'h' ? ORIENTATION_HORIZONTAL : ORIENTATION_VERTICAL;
+                expect('(');
+                skipWhitespace();
+                float value = parseNumber();
+                boolean percent;
+                if (mSpec.startsWith("%", mIndex)) {
+                    percent = true;
+                    mIndex += 1;
+                } else if (mSpec.startsWith("px", mIndex)) {
+                    percent = false;
+                    mIndex += 2;
+                } else {
+                    throw error("Expected % or px");
+                }
+                expect(',');
+                int first = parseNode();
+                expect(',');
+                int second = parseNode();
+                expect(')');
+                return percent
+                        ? mTree.splitPercent(orientation, value * 0.01f, first, second)
+                        : mTree.splitPixels(orientation, (int) value, first, second);
+            }
+            return mTree.leaf(parseIndex());
+        }
+
+        int parseIndex() {
+            skipWhitespace();
+            int start = mIndex;
+            while (mIndex < mSpec.length() && Character.isDigit(mSpec.charAt(mIndex))) {
+                mIndex++;
+            }
+            if (start == mIndex || (mIndex < mSpec.length() && mSpec.charAt(mIndex) == '.')) {
+                throw error("Expected a pane index");
+            }
+            try {
+                return Integer.parseInt(mSpec.substring(start, mIndex));
+            } catch (NumberFormatException e) {
+                throw error("Pane index out of range");
+            }
+        }
+
+        float parseNumber() {
+            skipWhitespace();
+            int start = mIndex;
+            while (mIndex < mSpec.length() && (Character.isDigit(mSpec.charAt(mIndex)) || mSpec.charAt(mIndex) == '.')) {
+                mIndex++;
+            }
+            if (start == mIndex) {
+                throw error("Expected a number");
+            }
+            return Float.parseFloat(mSpec.substring(start, mIndex));
+        }
+
+        void expect(char c) {
+            skipWhitespace();
+            if (mIndex >= mSpec.length() || mSpec.charAt(mIndex) != c) {
+                throw error("Expected '" + c + "'");
+            }
+            mIndex++;
+        }
+
+        void skipWhitespace() {
+            while (mIndex < mSpec.length() && Character.isWhitespace(mSpec.charAt(mIndex))) {
+                mIndex++;
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at index " + mIndex + " in split tree \"" + mSpec + "\".");
+        }
+    }
+
+}
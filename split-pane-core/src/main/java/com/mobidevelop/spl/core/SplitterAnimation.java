@@ -0,0 +1,94 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.core;
+
+/**
+ * The timeline of a splitter moving from one position to another.
+ * <p/>
+ * A single instance is reused for every animation; starting, sampling and
+ * finishing never allocate. Easing is left to the caller, which maps
+ * {@link #getProgress(long)} through an interpolator and passes the result to
+ * {@link #getPosition(float)}.
+ */
+public final class SplitterAnimation {
+
+    private int mFrom;
+    private int mTo;
+    private long mStartNanos;
+    private long mDurationNanos;
+    private boolean mRunning;
+
+    /**
+     * Starts an animation.
+     *
+     * @param from           the starting position
+     * @param to             the final position
+     * @param startNanos     the start time, in nanoseconds
+     * @param durationMillis the duration, in milliseconds
+     */
+    public void start(int from, int to, long startNanos, long durationMillis) {
+        mFrom = from;
+        mTo = to;
+        mStartNanos = startNanos;
+        mDurationNanos = Math.max(1, durationMillis) * 1000000L;
+        mRunning = true;
+    }
+
+    public void stop() {
+        mRunning = false;
+    }
+
+    public boolean isRunning() {
+        return mRunning;
+    }
+
+    public int getFrom() {
+        return mFrom;
+    }
+
+    public int getTo() {
+        return mTo;
+    }
+
+    /**
+     * Gets the linear progress of the animation.
+     *
+     * @param nowNanos the current time, in nanoseconds
+     * @return the progress, between 0 and 1
+     */
+    public float getProgress(long nowNanos) {
+        if (nowNanos <= mStartNanos) {
+            return 0f;
+        }
+        long elapsed = nowNanos - mStartNanos;
+        return elapsed >= mDurationNanos ? 1f : (float) elapsed / (float) mDurationNanos;
+    }
+
+    /**
+     * Gets the position for an eased progress.
+     *
+     * @param fraction the eased progress, usually between 0 and 1
+     * @return the position
+     */
+    public int getPosition(float fraction) {
+        return mFrom + Math.round((mTo - mFrom) * fraction);
+    }
+
+}
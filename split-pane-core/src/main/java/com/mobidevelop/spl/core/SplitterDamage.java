@@ -0,0 +1,86 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.core;
+
+/**
+ * Tracks the span a moving splitter was last drawn at along its axis, so moving
+ * it only needs to redraw the span it left plus the span it moved to rather than
+ * the whole layout.
+ */
+public final class SplitterDamage {
+
+    private int mStart;
+    private int mEnd;
+    private int mDirtyStart;
+    private int mDirtyEnd;
+
+    /**
+     * Records where the splitter is drawn without producing any damage, such as
+     * at the start of a drag.
+     *
+     * @param start the leading edge of the splitter
+     * @param end   the trailing edge of the splitter
+     */
+    public void reset(int start, int end) {
+        mStart = start;
+        mEnd = end;
+        mDirtyStart = start;
+        mDirtyEnd = start;
+    }
+
+    /**
+     * Records where the splitter is drawn now and computes the span to redraw, the
+     * union of where it was and where it is.
+     *
+     * @param start the leading edge of the splitter
+     * @param end   the trailing edge of the splitter
+     * @return whether the splitter moved, and anything needs to be redrawn
+     */
+    public boolean move(int start, int end) {
+        if (start == mStart && end == mEnd) {
+            mDirtyStart = start;
+            mDirtyEnd = start;
+            return false;
+        }
+        mDirtyStart = Math.min(mStart, start);
+        mDirtyEnd = Math.max(mEnd, end);
+        mStart = start;
+        mEnd = end;
+        return true;
+    }
+
+    public int getDirtyStart() {
+        return mDirtyStart;
+    }
+
+    public int getDirtyEnd() {
+        return mDirtyEnd;
+    }
+
+    /**
+     * Gets the size of the span to redraw.
+     *
+     * @return the size of the span to redraw, 0 if nothing moved
+     */
+    public int getDirtySize() {
+        return mDirtyEnd - mDirtyStart;
+    }
+
+}
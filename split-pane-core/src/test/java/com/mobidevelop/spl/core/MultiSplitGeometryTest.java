@@ -0,0 +1,184 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Covers {@link MultiSplitGeometry}: resolving a single splitter, and with several
+ * splitters distributing, keeping splitters between their neighbours, hit testing,
+ * collapsing and swapping panes.
+ */
+public class MultiSplitGeometryTest {
+
+    private static final int LENGTH = 1200;
+    private static final int SPLITTER_SIZE = 10;
+
+    private MultiSplitGeometry mGeometry;
+
+    @Before
+    public void setUp() {
+        mGeometry = new MultiSplitGeometry();
+        mGeometry.setLength(LENGTH);
+        mGeometry.setSplitterSize(SPLITTER_SIZE);
+        mGeometry.setSplitterCount(3, true);
+        mGeometry.resolve();
+    }
+
+    @Test
+    public void singleSplitterResolvesBetweenPixelsAndPercent() {
+        MultiSplitGeometry geometry = newSingleSplitter();
+        geometry.setPositionPercent(0, 0.3f);
+        geometry.resolve();
+        assertEquals(300, geometry.getPosition(0));
+        assertEquals(295, geometry.getPaneSize(0));
+        assertEquals(695, geometry.getPaneSize(1));
+        geometry.setPosition(0, 250);
+        geometry.resolve();
+        assertEquals(0.25f, geometry.getPositionPercent(0), 0f);
+    }
+
+    @Test
+    public void singleSplitterKeepsPanesAtTheirMinimum() {
+        MultiSplitGeometry geometry = newSingleSplitter();
+        geometry.setPositionPercent(0, 0.05f);
+        geometry.resolve();
+        assertEquals(100, geometry.getPosition(0));
+        assertEquals(100, geometry.moveTo(0, -50));
+        assertEquals(900, geometry.offsetPosition(0, 1000));
+    }
+
+    @Test
+    public void singleSplitterStaysInRangeWhenTheConstraintsChange() {
+        MultiSplitGeometry geometry = newSingleSplitter();
+        geometry.resolve();
+        geometry.moveTo(0, 150);
+        geometry.resolve();
+        geometry.setLength(800);
+        geometry.resolve();
+        // Shrinking keeps a position which is still in range in pixels
+        assertEquals(150, geometry.getPosition(0));
+        geometry.setPaneSizeMin(200);
+        geometry.resolve();
+        assertEquals(200, geometry.getPosition(0));
+        assertEquals(0.25f, geometry.getPositionPercent(0), 0f);
+    }
+
+    @Test
+    public void paneSizesAreNeverNegative() {
+        MultiSplitGeometry geometry = newSingleSplitter();
+        geometry.setPaneSizeMin(0);
+        geometry.setLength(3);
+        geometry.setPosition(0, 3);
+        geometry.resolve();
+        // The splitter is wider than the length, so both panes are squeezed out
+        assertEquals(0, geometry.getPaneSize(0));
+        assertEquals(0, geometry.getPaneSize(1));
+    }
+
+    @Test
+    public void redistributingSpreadsSplittersEvenly() {
+        assertEquals(300, mGeometry.getPosition(0));
+        assertEquals(600, mGeometry.getPosition(1));
+        assertEquals(900, mGeometry.getPosition(2));
+        assertEquals(295, mGeometry.getPaneSize(0));
+        assertEquals(290, mGeometry.getPaneSize(1));
+        assertEquals(295, mGeometry.getPaneSize(3));
+    }
+
+    @Test
+    public void weightsShareTheLength() {
+        mGeometry.setSplitterCount(1, false);
+        mGeometry.setPaneWeight(0, 1);
+        mGeometry.setPaneWeight(1, 3);
+        mGeometry.setSplitterCount(1, true);
+        mGeometry.resolve();
+        assertEquals(300, mGeometry.getPosition(0));
+    }
+
+    @Test
+    public void splittersStayBetweenTheirNeighbours() {
+        mGeometry.setPaneSizeMin(50);
+        assertEquals(350, mGeometry.moveTo(1, 0));
+        assertEquals(850, mGeometry.moveTo(1, LENGTH));
+    }
+
+    @Test
+    public void paneMaximumLimitsBothSplitters() {
+        mGeometry.setPaneSizeMax(1, 400, -1);
+        assertEquals(200, mGeometry.moveTo(0, 0));
+        assertEquals(600, mGeometry.moveTo(1, LENGTH));
+    }
+
+    @Test
+    public void shrinkingAfterADragNearTheEdgeClampsTheSplitters() {
+        mGeometry.setPaneSizeMin(50);
+        mGeometry.moveTo(2, 1140);
+        mGeometry.resolve();
+        mGeometry.setLength(800);
+        mGeometry.resolve();
+        assertEquals(750, mGeometry.getPosition(2));
+        assertTrue(mGeometry.getPaneSize(3) >= 50 - SPLITTER_SIZE / 2);
+        assertEquals(750f / 800f, mGeometry.getPositionPercent(2), 0.0001f);
+    }
+
+    @Test
+    public void findSplitterPicksTheClosest() {
+        assertEquals(1, mGeometry.findSplitter(603, 4));
+        assertEquals(MultiSplitGeometry.NO_SPLITTER, mGeometry.findSplitter(450, 4));
+        assertEquals(0, mGeometry.findSplitter(291, 4));
+        assertEquals(MultiSplitGeometry.NO_SPLITTER, mGeometry.findSplitter(290, 4));
+    }
+
+    @Test
+    public void collapsingAndExpandingRestoresTheSplitter() {
+        mGeometry.setPaneCollapsed(0, true);
+        mGeometry.resolve();
+        assertEquals(SPLITTER_SIZE / 2, mGeometry.getPosition(0));
+        assertEquals(0, mGeometry.getPaneSize(0));
+        mGeometry.setPaneCollapsed(0, false);
+        mGeometry.resolve();
+        assertEquals(300, mGeometry.getPosition(0));
+    }
+
+    @Test
+    public void swappingPanesKeepsTheirSizes() {
+        mGeometry.moveTo(0, 200);
+        int first = mGeometry.getPaneSize(0);
+        int third = mGeometry.getPaneSize(2);
+        mGeometry.swapPanes(0, 2);
+        assertEquals(third, mGeometry.getPaneSize(0));
+        assertEquals(first, mGeometry.getPaneSize(2));
+        assertEquals(900, mGeometry.getPosition(2));
+    }
+
+    private static MultiSplitGeometry newSingleSplitter() {
+        MultiSplitGeometry geometry = new MultiSplitGeometry();
+        geometry.setLength(1000);
+        geometry.setSplitterSize(SPLITTER_SIZE);
+        geometry.setPaneSizeMin(100);
+        return geometry;
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Covers hit testing, moving and laying out the panes of a {@link SplitGrid}.
+ */
+public class SplitGridTest {
+
+    private SplitGrid mGrid;
+
+    @Before
+    public void setUp() {
+        mGrid = new SplitGrid();
+        mGrid.setSplitterSize(10);
+        mGrid.getColumns().setPositionPercent(0, 0.5f);
+        mGrid.getRows().setPositionPercent(0, 0.5f);
+        mGrid.layout(400, 300);
+    }
+
+    @Test
+    public void hitTestFindsEachBandAndTheCross() {
+        assertEquals(SplitGrid.HIT_COLUMNS, mGrid.hitTest(200, 50, 0));
+        assertEquals(SplitGrid.HIT_ROWS, mGrid.hitTest(50, 150, 0));
+        assertEquals(SplitGrid.HIT_CROSS, mGrid.hitTest(203, 148, 0));
+        assertEquals(SplitGrid.HIT_NONE, mGrid.hitTest(50, 50, 0));
+        assertEquals(SplitGrid.HIT_NONE, mGrid.hitTest(210, 50, 0));
+        assertEquals(SplitGrid.HIT_COLUMNS, mGrid.hitTest(210, 50, 5));
+    }
+
+    @Test
+    public void panesFillTheGridAroundTheSplitters() {
+        assertPane(0, 0, 0, 195, 145);
+        assertPane(1, 205, 0, 400, 145);
+        assertPane(2, 0, 155, 195, 300);
+        assertPane(3, 205, 155, 400, 300);
+    }
+
+    @Test
+    public void movingTheCrossMovesBothSplitters() {
+        assertEquals(SplitGrid.HIT_CROSS, mGrid.moveTo(SplitGrid.HIT_CROSS, 100, 200));
+        assertPane(0, 0, 0, 95, 195);
+        assertPane(3, 105, 205, 400, 300);
+        // Only the hit splitters move
+        assertEquals(SplitGrid.HIT_ROWS, mGrid.moveTo(SplitGrid.HIT_ROWS, 300, 100));
+        assertEquals(100, mGrid.getColumns().getPosition(0));
+        assertEquals(SplitGrid.HIT_NONE, mGrid.moveTo(SplitGrid.HIT_ROWS, 300, 100));
+    }
+
+    @Test
+    public void shrinkingAfterADragNearTheEdgeClampsTheSplitters() {
+        mGrid.setPaneSizeMin(20);
+        mGrid.layout(400, 300);
+        mGrid.moveTo(SplitGrid.HIT_CROSS, 400, 300);
+        mGrid.layout(400, 300);
+        assertEquals(380, mGrid.getColumns().getPosition(0));
+        assertEquals(280, mGrid.getRows().getPosition(0));
+
+        mGrid.layout(200, 100);
+        assertEquals(180, mGrid.getColumns().getPosition(0));
+        assertEquals(80, mGrid.getRows().getPosition(0));
+        assertPane(3, 185, 85, 200, 100);
+    }
+
+    @Test
+    public void panesNeverGetNegativeSizes() {
+        // The splitters do not fit, so the edges of the second column and row cross
+        mGrid.layout(6, 4);
+        assertEquals(-5, mGrid.getRight(1) - mGrid.getLeft(1));
+        assertEquals(-5, mGrid.getBottom(2) - mGrid.getTop(2));
+        for (int pane = 0; pane < SplitGrid.PANE_COUNT; pane++) {
+            assertEquals(Math.max(0, mGrid.getRight(pane) - mGrid.getLeft(pane)), mGrid.getWidth(pane));
+            assertEquals(Math.max(0, mGrid.getBottom(pane) - mGrid.getTop(pane)), mGrid.getHeight(pane));
+        }
+    }
+
+    @Test
+    public void columnsAndRowsKeepTheirOwnConstraints() {
+        mGrid.setPaneSizeMax(250);
+        mGrid.getColumns().setPaneSizeMin(0, -1, 0.25f);
+        mGrid.getRows().setPaneSizeMax(1, 100, -1);
+        mGrid.layout(400, 300);
+        // The bottom row may be at most 100 high
+        assertEquals(200, mGrid.getRows().getPosition(0));
+        assertEquals(SplitGrid.HIT_CROSS, mGrid.moveTo(SplitGrid.HIT_CROSS, 0, 300));
+        // The right column may be at most 250 wide, the top row at most 250 high
+        assertEquals(150, mGrid.getColumns().getPosition(0));
+        assertEquals(250, mGrid.getRows().getPosition(0));
+        // Constraints survive laying out again
+        mGrid.layout(800, 300);
+        assertEquals(550, mGrid.getColumns().getPosition(0));
+        mGrid.setPaneSizeMax(-1);
+        mGrid.layout(800, 300);
+        // Without a maximum, the left column still keeps a quarter of the width
+        mGrid.moveTo(SplitGrid.HIT_COLUMNS, 0, 0);
+        assertEquals(200, mGrid.getColumns().getPosition(0));
+    }
+
+    @Test
+    public void weightsSplitAnAxisUnevenly() {
+        mGrid.getColumns().setPaneWeight(0, 3);
+        mGrid.getColumns().setSplitterCount(1, true);
+        mGrid.layout(400, 300);
+        assertEquals(300, mGrid.getColumns().getPosition(0));
+        assertEquals(150, mGrid.getRows().getPosition(0));
+    }
+
+    @Test
+    public void collapsingAColumnCollapsesItsPanes() {
+        mGrid.getColumns().setPaneCollapsed(1, true);
+        mGrid.layout(400, 300);
+        assertEquals(395, mGrid.getColumns().getPosition(0));
+        assertEquals(0, mGrid.getWidth(1));
+        assertEquals(0, mGrid.getWidth(3));
+        assertEquals(390, mGrid.getWidth(0));
+        assertTrue(mGrid.isPaneCollapsed(1));
+        assertTrue(mGrid.isPaneCollapsed(3));
+        assertFalse(mGrid.isPaneCollapsed(0));
+
+        // Expanding puts the splitter back where it was
+        mGrid.getColumns().setPaneCollapsed(1, false);
+        mGrid.layout(400, 300);
+        assertEquals(200, mGrid.getColumns().getPosition(0));
+    }
+
+    @Test
+    public void draggingACollapsedColumnOpensIt() {
+        mGrid.getColumns().setPaneCollapsed(0, true);
+        mGrid.layout(400, 300);
+        assertEquals(5, mGrid.getColumns().getPosition(0));
+        assertEquals(SplitGrid.HIT_COLUMNS, mGrid.moveTo(SplitGrid.HIT_COLUMNS, 120, 0));
+        mGrid.layout(400, 300);
+        assertFalse(mGrid.getColumns().isPaneCollapsed(0));
+        assertEquals(120, mGrid.getColumns().getPosition(0));
+    }
+
+    private void assertPane(int pane, int left, int top, int right, int bottom) {
+        assertEquals(left, mGrid.getLeft(pane));
+        assertEquals(top, mGrid.getTop(pane));
+        assertEquals(right, mGrid.getRight(pane));
+        assertEquals(bottom, mGrid.getBottom(pane));
+        assertEquals(right - left, mGrid.getWidth(pane));
+        assertEquals(bottom - top, mGrid.getHeight(pane));
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Covers persisting positions with {@link SplitPositionStore}, reading them back
+ * without blocking, and closing stores.
+ */
+public class SplitPositionStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void positionsSurviveReopening() throws Exception {
+        File file = folder.newFile();
+        SplitPositionStore store = new SplitPositionStore(file);
+        store.put("a", new float[] { 0.25f, 0.75f });
+        store.flush();
+        store.close();
+
+        SplitPositionStore reopened = new SplitPositionStore(file);
+        assertArrayEquals(new float[] { 0.25f, 0.75f }, reopened.get("a"), 0f);
+        reopened.close();
+    }
+
+    @Test
+    public void closingWritesPendingChanges() throws Exception {
+        File file = folder.newFile();
+        SplitPositionStore store = new SplitPositionStore(file);
+        store.put("a", new float[] { 0.5f });
+        store.close();
+        store.close();
+
+        final CountDownLatch loaded = new CountDownLatch(1);
+        final float[][] positions = new float[1][];
+        // The write was queued ahead of the read of the new store on the shared thread
+        SplitPositionStore reopened = new SplitPositionStore(file);
+        reopened.whenLoaded(new SplitPositionStore.OnLoadedListener() {
+            @Override
+            public void onLoaded(SplitPositionStore loadedStore) {
+                positions[0] = loadedStore.get("a");
+                loaded.countDown();
+            }
+        });
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        assertTrue(reopened.isLoaded());
+        assertArrayEquals(new float[] { 0.5f }, positions[0], 0f);
+        reopened.close();
+    }
+
+    @Test
+    public void whenLoadedRunsRightAwayOnceLoaded() throws Exception {
+        SplitPositionStore store = new SplitPositionStore(folder.newFile());
+        store.flush();
+        final boolean[] called = new boolean[1];
+        store.whenLoaded(new SplitPositionStore.OnLoadedListener() {
+            @Override
+            public void onLoaded(SplitPositionStore loadedStore) {
+                called[0] = true;
+            }
+        });
+        assertTrue(called[0]);
+        store.close();
+    }
+
+    @Test
+    public void awaitLoadedReturnsOnceLoaded() throws Exception {
+        File file = folder.newFile();
+        SplitPositionStore store = new SplitPositionStore(file);
+        store.put("a", new float[] { 0.5f });
+        store.close();
+
+        SplitPositionStore reopened = new SplitPositionStore(file);
+        assertTrue(reopened.awaitLoaded(5, TimeUnit.SECONDS));
+        assertTrue(reopened.isLoaded());
+        assertArrayEquals(new float[] { 0.5f }, reopened.get("a"), 0f);
+        reopened.close();
+    }
+
+    @Test
+    public void removingBeforeLoadingWins() throws Exception {
+        File file = folder.newFile();
+        SplitPositionStore store = new SplitPositionStore(file);
+        store.put("a", new float[] { 0.5f });
+        store.flush();
+        store.close();
+
+        SplitPositionStore reopened = new SplitPositionStore(file);
+        reopened.remove("a");
+        assertNull(reopened.get("a"));
+        reopened.flush();
+        reopened.close();
+
+        SplitPositionStore again = new SplitPositionStore(file);
+        assertNull(again.get("a"));
+        again.close();
+    }
+
+    @Test
+    public void closedStoresRejectChanges() throws Exception {
+        SplitPositionStore store = new SplitPositionStore(folder.newFile());
+        store.close();
+        try {
+            store.put("a", new float[] { 0.5f });
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Covers parsing and validating {@link SplitTree} specs, and laying them out.
+ */
+public class SplitTreeTest {
+
+    @Test
+    public void parsesAndLaysOutNestedSplits() {
+        SplitTree tree = SplitTree.parse("h(25%, 0, v(70%, 1, 2))");
+        tree.setSplitterSize(10);
+        tree.layout(400, 200);
+        assertEquals(3, tree.getPaneCount());
+        assertEquals(2, tree.getSplitterCount());
+        int left = tree.getPaneNode(0);
+        assertEquals(95, tree.getRight(left));
+        int bottom = tree.getPaneNode(2);
+        assertEquals(105, tree.getLeft(bottom));
+        assertEquals(145, tree.getTop(bottom));
+    }
+
+    @Test
+    public void parsesPixelPositions() {
+        SplitTree tree = SplitTree.parse("v(120px, 1, 0)");
+        tree.layout(400, 400);
+        assertEquals(120, tree.getPosition(tree.getRoot()));
+        assertEquals(0, tree.getTop(tree.getPaneNode(1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFractionalPaneIndex() {
+        SplitTree.parse("h(50%, 0, 1.5)");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDuplicatePane() {
+        SplitTree.parse("h(50%, 1, 1)");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMissingUnit() {
+        SplitTree.parse("h(50, 0, 1)");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNodeUsedTwice() {
+        SplitTree tree = new SplitTree();
+        int leaf = tree.leaf(0);
+        tree.setRoot(tree.splitPercent(SplitTree.ORIENTATION_HORIZONTAL, 0.5f, leaf, leaf));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNodeSharedBetweenSplits() {
+        SplitTree tree = new SplitTree();
+        int shared = tree.leaf(1);
+        int inner = tree.splitPercent(SplitTree.ORIENTATION_VERTICAL, 0.5f, tree.leaf(0), shared);
+        tree.setRoot(tree.splitPercent(SplitTree.ORIENTATION_HORIZONTAL, 0.5f, inner, shared));
+    }
+
+}
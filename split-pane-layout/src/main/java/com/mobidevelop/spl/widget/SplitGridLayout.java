@@ -0,0 +1,841 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.widget;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.HapticFeedbackConstants;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.ViewGroup;
+
+import com.mobidevelop.spl.R;
+import com.mobidevelop.spl.core.MultiSplitGeometry;
+import com.mobidevelop.spl.core.SplitGrid;
+
+/**
+ * A layout that arranges exactly four children in a two by two grid.
+ * <p/>
+ * Replaces three nested SplitPaneLayouts: one vertical and one horizontal
+ * splitter span the whole layout, so the outer splitters always stay aligned,
+ * and dragging their intersection moves both at once. All four panes are
+ * measured and laid out in one pass and both splitter bands share a single hit
+ * test. Children are the panes in row-major order: top left, top right, bottom
+ * left, bottom right.
+ * <p/>
+ * Columns and rows take the same constraints as the panes of a SplitPaneLayout:
+ * minimum and maximum sizes in pixels or as a fraction, weights for the initial
+ * split, and collapsing.
+ */
+public class SplitGridLayout extends ViewGroup {
+
+    public interface OnSplitterPositionChangedListener {
+        /**
+         * Called when one or both splitters have moved.
+         *
+         * @param splitGridLayout the layout
+         * @param splitters       the splitters which moved, a combination of {@link SplitGrid#HIT_COLUMNS} and {@link SplitGrid#HIT_ROWS}
+         * @param fromUser        whether the user moved the splitters
+         */
+        void onSplitterPositionChanged(SplitGridLayout splitGridLayout, int splitters, boolean fromUser);
+    }
+
+    private final SplitGrid mSplitGrid = new SplitGrid();
+    private int mSplitterSize = 8;
+    private boolean mSplitterMovable = true;
+    private int mSplitterTouchSlop = 0;
+    private int mPaneSizeMin = 0;
+    private float mPaneSizeMinPercent = -1;
+    private int mPaneSizeMax = -1;
+    private float mPaneSizeMaxPercent = -1;
+    // Whether a splitter was placed, rather than split by the weights
+    private boolean mColumnsExplicit = false;
+    private boolean mRowsExplicit = false;
+
+    private Drawable mSplitterDrawable;
+
+    private Rect mSplitterBounds = new Rect();
+
+    private final int[] mChildWidthSpecs = new int[SplitGrid.PANE_COUNT];
+    private final int[] mChildHeightSpecs = new int[SplitGrid.PANE_COUNT];
+    private final View[] mMeasuredChildren = new View[SplitGrid.PANE_COUNT];
+
+    private OnSplitterPositionChangedListener mOnSplitterPositionChangedListener;
+
+    private int mDragging = SplitGrid.HIT_NONE;
+    private int mDragMoved = SplitGrid.HIT_NONE;
+
+    public SplitGridLayout(Context context) {
+        super(context);
+        mSplitterDrawable = SplitterResources.newColorDrawable(SplitterResources.DEFAULT_COLOR);
+    }
+
+    public SplitGridLayout(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        extractAttributes(context, attrs);
+    }
+
+    public SplitGridLayout(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+        extractAttributes(context, attrs);
+    }
+
+    private void extractAttributes(Context context, AttributeSet attrs) {
+        if (attrs != null) {
+            TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SplitGridLayout);
+            if (a.hasValue(R.styleable.SplitGridLayout_splitterSize)) {
+                mSplitterSize = a.getDimensionPixelSize(R.styleable.SplitGridLayout_splitterSize, 0);
+            } else {
+                mSplitterSize = context.getResources().getDimensionPixelSize(R.dimen.spl_default_splitter_size);
+            }
+            mSplitterMovable = a.getBoolean(R.styleable.SplitGridLayout_splitterMovable, true);
+            mColumnsExplicit = extractPosition(a, R.styleable.SplitGridLayout_splitterPositionX, mSplitGrid.getColumns());
+            mRowsExplicit = extractPosition(a, R.styleable.SplitGridLayout_splitterPositionY, mSplitGrid.getRows());
+            TypedValue value = a.peekValue(R.styleable.SplitGridLayout_splitterBackground);
+            if (value != null) {
+                if (value.type == TypedValue.TYPE_REFERENCE ||
+                        value.type == TypedValue.TYPE_STRING) {
+                    mSplitterDrawable = a.getDrawable(R.styleable.SplitGridLayout_splitterBackground);
+                } else if (value.type == TypedValue.TYPE_INT_COLOR_ARGB8 ||
+                        value.type == TypedValue.TYPE_INT_COLOR_ARGB4 ||
+                        value.type == TypedValue.TYPE_INT_COLOR_RGB8 ||
+                        value.type == TypedValue.TYPE_INT_COLOR_RGB4) {
+                    mSplitterDrawable = SplitterResources.newColorDrawable(a.getColor(R.styleable.SplitGridLayout_splitterBackground, 0xFF000000));
+                }
+            }
+            if (a.hasValue(R.styleable.SplitGridLayout_splitterTouchSlop)) {
+                mSplitterTouchSlop = a.getDimensionPixelSize(R.styleable.SplitGridLayout_splitterTouchSlop, 0);
+            } else {
+                mSplitterTouchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
+            }
+            value = a.peekValue(R.styleable.SplitGridLayout_paneSizeMin);
+            if (value != null) {
+                if (value.type == TypedValue.TYPE_FRACTION) {
+                    mPaneSizeMinPercent = a.getFraction(R.styleable.SplitGridLayout_paneSizeMin, 1, 1, -1);
+                } else {
+                    mPaneSizeMin = a.getDimensionPixelSize(R.styleable.SplitGridLayout_paneSizeMin, 0);
+                }
+            }
+            value = a.peekValue(R.styleable.SplitGridLayout_paneSizeMax);
+            if (value != null) {
+                if (value.type == TypedValue.TYPE_FRACTION) {
+                    mPaneSizeMaxPercent = a.getFraction(R.styleable.SplitGridLayout_paneSizeMax, 1, 1, -1);
+                } else {
+                    mPaneSizeMax = a.getDimensionPixelSize(R.styleable.SplitGridLayout_paneSizeMax, -1);
+                }
+            }
+            a.recycle();
+        }
+        updateSplitterDrawableState();
+    }
+
+    private static boolean extractPosition(TypedArray a, int index, MultiSplitGeometry geometry) {
+        TypedValue value = a.peekValue(index);
+        if (value != null) {
+            if (value.type == TypedValue.TYPE_DIMENSION) {
+                geometry.setPosition(0, a.getDimensionPixelSize(index, 0));
+                return true;
+            } else if (value.type == TypedValue.TYPE_FRACTION) {
+                geometry.setPositionPercent(0, a.getFraction(index, 1, 1, 0.5f));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+
+        int measuredWidth = getMeasuredWidth();
+        int measuredHeight = getMeasuredHeight();
+
+        check();
+
+        if (measuredWidth > 0 && measuredHeight > 0) {
+            computeLayout();
+
+            for (int i = 0; i < SplitGrid.PANE_COUNT; i++) {
+                int widthSpec = MeasureSpec.makeMeasureSpec(mSplitGrid.getWidth(i), MeasureSpec.EXACTLY);
+                int heightSpec = MeasureSpec.makeMeasureSpec(mSplitGrid.getHeight(i), MeasureSpec.EXACTLY);
+                View child = getChildAt(i);
+                // A child replaced at the same index is measured even if its spec did not change
+                if (widthSpec != mChildWidthSpecs[i] || heightSpec != mChildHeightSpecs[i]
+                        || child != mMeasuredChildren[i] || child.isLayoutRequested()) {
+                    child.measure(widthSpec, heightSpec);
+                    mChildWidthSpecs[i] = widthSpec;
+                    mChildHeightSpecs[i] = heightSpec;
+                    mMeasuredChildren[i] = child;
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        int childCount = getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            int left = mSplitGrid.getLeft(i);
+            int top = mSplitGrid.getTop(i);
+            getChildAt(i).layout(left, top, left + mSplitGrid.getWidth(i), top + mSplitGrid.getHeight(i));
+        }
+    }
+
+    private void computeLayout() {
+        mSplitGrid.setSplitterSize(mSplitterSize);
+        mSplitGrid.setPaneSizeMin(mPaneSizeMin);
+        mSplitGrid.setPaneSizeMinPercent(mPaneSizeMinPercent);
+        mSplitGrid.setPaneSizeMax(mPaneSizeMax);
+        mSplitGrid.setPaneSizeMaxPercent(mPaneSizeMaxPercent);
+        mSplitGrid.layout(getMeasuredWidth(), getMeasuredHeight());
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (mSplitterMovable) {
+            int x = Math.round(event.getX());
+            int y = Math.round(event.getY());
+
+            switch (event.getActionMasked()) {
+                case MotionEvent.ACTION_DOWN:
+                    mDragging = mSplitGrid.hitTest(x, y, mSplitterTouchSlop);
+                    mDragMoved = SplitGrid.HIT_NONE;
+                    if (mDragging != SplitGrid.HIT_NONE) {
+                        performHapticFeedback(HapticFeedbackConstants.VIRTUAL_KEY);
+                        setPressed(true);
+                    }
+                    break;
+                case MotionEvent.ACTION_MOVE:
+                    if (mDragging != SplitGrid.HIT_NONE) {
+                        moveSplitters(x, y);
+                    }
+                    break;
+                case MotionEvent.ACTION_UP:
+                    if (mDragging != SplitGrid.HIT_NONE) {
+                        moveSplitters(x, y);
+                        if (mDragMoved != SplitGrid.HIT_NONE) {
+                            notifySplitterPositionChanged(mDragMoved, true);
+                        }
+                    }
+                    cancelDrag();
+                    break;
+                case MotionEvent.ACTION_CANCEL:
+                    cancelDrag();
+                    break;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void cancelDrag() {
+        mDragging = SplitGrid.HIT_NONE;
+        mDragMoved = SplitGrid.HIT_NONE;
+        setPressed(false);
+    }
+
+    private void moveSplitters(int x, int y) {
+        int moved = mSplitGrid.moveTo(mDragging, x, y);
+        if (moved != SplitGrid.HIT_NONE) {
+            mDragMoved |= moved;
+            markExplicit(moved);
+            // Panes whose size did not change skip measuring
+            requestLayout();
+            invalidate();
+        }
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        super.dispatchDraw(canvas);
+        if (mSplitterDrawable != null && getChildCount() == SplitGrid.PANE_COUNT) {
+            MultiSplitGeometry columns = mSplitGrid.getColumns();
+            MultiSplitGeometry rows = mSplitGrid.getRows();
+            // The horizontal splitter is drawn on either side of the vertical one, so
+            // translucent drawables do not darken the intersection
+            drawSplitter(canvas, columns.getSplitterStart(0), 0, columns.getSplitterEnd(0), rows.getLength());
+            drawSplitter(canvas, 0, rows.getSplitterStart(0), columns.getSplitterStart(0), rows.getSplitterEnd(0));
+            drawSplitter(canvas, columns.getSplitterEnd(0), rows.getSplitterStart(0), columns.getLength(), rows.getSplitterEnd(0));
+        }
+    }
+
+    private void drawSplitter(Canvas canvas, int left, int top, int right, int bottom) {
+        mSplitterBounds.set(left, top, right, bottom);
+        if (!mSplitterDrawable.getBounds().equals(mSplitterBounds)) {
+            mSplitterDrawable.setBounds(mSplitterBounds);
+        }
+        mSplitterDrawable.draw(canvas);
+    }
+
+    @Override
+    protected void drawableStateChanged() {
+        super.drawableStateChanged();
+        updateSplitterDrawableState();
+    }
+
+    private void updateSplitterDrawableState() {
+        if (mSplitterDrawable != null && mSplitterDrawable.isStateful() && mSplitterDrawable.setState(getDrawableState())) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public Parcelable onSaveInstanceState() {
+        Parcelable superState = super.onSaveInstanceState();
+        SavedState ss = new SavedState(superState);
+        MultiSplitGeometry columns = mSplitGrid.getColumns();
+        MultiSplitGeometry rows = mSplitGrid.getRows();
+        ss.mCollapsedColumn = getCollapsedPane(columns);
+        ss.mCollapsedRow = getCollapsedPane(rows);
+        // A collapsed column or row keeps where it opens to
+        ss.mSplitterPositionPercentX = ss.mCollapsedColumn >= 0 ? columns.getPaneExpandedPercent(ss.mCollapsedColumn) : columns.getPositionPercent(0);
+        ss.mSplitterPositionPercentY = ss.mCollapsedRow >= 0 ? rows.getPaneExpandedPercent(ss.mCollapsedRow) : rows.getPositionPercent(0);
+        return ss;
+    }
+
+    @Override
+    public void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState ss = (SavedState) state;
+        super.onRestoreInstanceState(ss.getSuperState());
+        restoreAxis(mSplitGrid.getColumns(), ss.mSplitterPositionPercentX, ss.mCollapsedColumn);
+        restoreAxis(mSplitGrid.getRows(), ss.mSplitterPositionPercentY, ss.mCollapsedRow);
+        markExplicit(SplitGrid.HIT_CROSS);
+        requestLayout();
+    }
+
+    private static void restoreAxis(MultiSplitGeometry axis, float percent, int collapsed) {
+        // Expand first, as collapsing remembers the position to expand to
+        axis.setPaneCollapsed(0, false);
+        axis.setPaneCollapsed(1, false);
+        if (percent >= 0) {
+            axis.setPositionPercent(0, percent);
+        }
+        if (collapsed >= 0) {
+            axis.setPaneCollapsed(collapsed, true);
+        }
+    }
+
+    private static int getCollapsedPane(MultiSplitGeometry axis) {
+        return axis.isPaneCollapsed(0) ? 0 : axis.isPaneCollapsed(1) ? 1 : -1;
+    }
+
+    /**
+     * Checks that there is one child per pane.
+     */
+    private void check() {
+        if (getChildCount() != SplitGrid.PANE_COUNT) {
+            throw new RuntimeException("SplitGridLayout must have exactly " + SplitGrid.PANE_COUNT + " child views.");
+        }
+    }
+
+    /**
+     * Gets the current position of the vertical splitter, in pixels.
+     *
+     * @return the position of the vertical splitter
+     */
+    public int getSplitterPositionX() {
+        return mSplitGrid.getColumns().getPosition(0);
+    }
+
+    /**
+     * Sets the current position of the vertical splitter, in pixels.
+     *
+     * @param position the desired position of the vertical splitter
+     */
+    public void setSplitterPositionX(int position) {
+        mSplitGrid.getColumns().setPosition(0, position);
+        onSplitterPositionSet(SplitGrid.HIT_COLUMNS);
+    }
+
+    /**
+     * Gets the current position of the vertical splitter as a fraction of the width.
+     *
+     * @return the position of the vertical splitter as a fraction
+     */
+    public float getSplitterPositionPercentX() {
+        return mSplitGrid.getColumns().getPositionPercent(0);
+    }
+
+    /**
+     * Sets the current position of the vertical splitter as a fraction of the width.
+     *
+     * @param position the desired position of the vertical splitter, between 0 and 1
+     */
+    public void setSplitterPositionPercentX(float position) {
+        mSplitGrid.getColumns().setPositionPercent(0, position);
+        onSplitterPositionSet(SplitGrid.HIT_COLUMNS);
+    }
+
+    /**
+     * Gets the current position of the horizontal splitter, in pixels.
+     *
+     * @return the position of the horizontal splitter
+     */
+    public int getSplitterPositionY() {
+        return mSplitGrid.getRows().getPosition(0);
+    }
+
+    /**
+     * Sets the current position of the horizontal splitter, in pixels.
+     *
+     * @param position the desired position of the horizontal splitter
+     */
+    public void setSplitterPositionY(int position) {
+        mSplitGrid.getRows().setPosition(0, position);
+        onSplitterPositionSet(SplitGrid.HIT_ROWS);
+    }
+
+    /**
+     * Gets the current position of the horizontal splitter as a fraction of the height.
+     *
+     * @return the position of the horizontal splitter as a fraction
+     */
+    public float getSplitterPositionPercentY() {
+        return mSplitGrid.getRows().getPositionPercent(0);
+    }
+
+    /**
+     * Sets the current position of the horizontal splitter as a fraction of the height.
+     *
+     * @param position the desired position of the horizontal splitter, between 0 and 1
+     */
+    public void setSplitterPositionPercentY(float position) {
+        mSplitGrid.getRows().setPositionPercent(0, position);
+        onSplitterPositionSet(SplitGrid.HIT_ROWS);
+    }
+
+    /**
+     * Moves the intersection of the splitters, with a single layout pass.
+     *
+     * @param x the desired position of the vertical splitter as a fraction of the width
+     * @param y the desired position of the horizontal splitter as a fraction of the height
+     */
+    public void setSplitterPositionPercent(float x, float y) {
+        mSplitGrid.getColumns().setPositionPercent(0, x);
+        mSplitGrid.getRows().setPositionPercent(0, y);
+        onSplitterPositionSet(SplitGrid.HIT_CROSS);
+    }
+
+    private void onSplitterPositionSet(int splitters) {
+        markExplicit(splitters);
+        requestLayout();
+        invalidate();
+        notifySplitterPositionChanged(splitters, false);
+    }
+
+    /**
+     * Gets the current drawable used for the splitters.
+     *
+     * @return the drawable used for the splitters
+     */
+    public Drawable getSplitterDrawable() {
+        return mSplitterDrawable;
+    }
+
+    /**
+     * Sets the drawable used for the splitters.
+     *
+     * @param splitterDrawable the drawable used for the splitters
+     */
+    public void setSplitterDrawable(Drawable splitterDrawable) {
+        mSplitterDrawable = splitterDrawable;
+        updateSplitterDrawableState();
+        invalidate();
+    }
+
+    /**
+     * Gets the current size of the splitters in pixels.
+     *
+     * @return the size of the splitters
+     */
+    public int getSplitterSize() {
+        return mSplitterSize;
+    }
+
+    /**
+     * Sets the current size of the splitters in pixels.
+     *
+     * @param splitterSize the desired size of the splitters
+     */
+    public void setSplitterSize(int splitterSize) {
+        mSplitterSize = splitterSize;
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Gets whether the splitters are movable by the user.
+     *
+     * @return whether the splitters are movable
+     */
+    public boolean isSplitterMovable() {
+        return mSplitterMovable;
+    }
+
+    /**
+     * Sets whether the splitters are movable by the user.
+     *
+     * @param splitterMovable whether the splitters are movable
+     */
+    public void setSplitterMovable(boolean splitterMovable) {
+        mSplitterMovable = splitterMovable;
+    }
+
+    /**
+     * Gets the current "touch slop" which is used to extend the grab size of the splitters.
+     *
+     * @return the current "touch slop" of the splitters
+     */
+    public int getSplitterTouchSlop() {
+        return mSplitterTouchSlop;
+    }
+
+    /**
+     * Sets the current "touch slop" which is used to extend the grab size of the splitters.
+     *
+     * @param splitterTouchSlop the desired "touch slop" of the splitters
+     */
+    public void setSplitterTouchSlop(int splitterTouchSlop) {
+        mSplitterTouchSlop = splitterTouchSlop;
+    }
+
+    /**
+     * Gets the minimum size of panes, in pixels.
+     *
+     * @return the minimum size of panes, in pixels.
+     */
+    public int getPaneSizeMin() {
+        return mPaneSizeMin;
+    }
+
+    /**
+     * Sets the minimum size of panes, in pixels.
+     *
+     * @param paneSizeMin the minimum size of panes, in pixels
+     */
+    public void setPaneSizeMin(int paneSizeMin) {
+        mPaneSizeMin = paneSizeMin;
+        mPaneSizeMinPercent = -1;
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Gets the minimum size of panes, as a fraction of the width or height of the layout.
+     *
+     * @return the minimum size of panes as a fraction, or a negative value if a pixel size is used.
+     */
+    public float getPaneSizeMinPercent() {
+        return mPaneSizeMinPercent;
+    }
+
+    /**
+     * Sets the minimum size of panes, as a fraction of the width or height of the layout.
+     *
+     * @param paneSizeMinPercent the minimum size of panes as a fraction, or a negative value to use the pixel size
+     */
+    public void setPaneSizeMinPercent(float paneSizeMinPercent) {
+        mPaneSizeMinPercent = paneSizeMinPercent;
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Gets the maximum size of panes, in pixels.
+     *
+     * @return the maximum size of panes, in pixels, or a negative value for no maximum
+     */
+    public int getPaneSizeMax() {
+        return mPaneSizeMax;
+    }
+
+    /**
+     * Sets the maximum size of panes, in pixels.
+     *
+     * @param paneSizeMax the maximum size of panes, in pixels, or a negative value for no maximum
+     */
+    public void setPaneSizeMax(int paneSizeMax) {
+        mPaneSizeMax = paneSizeMax;
+        mPaneSizeMaxPercent = -1;
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Gets the maximum size of panes, as a fraction of the width or height of the layout.
+     *
+     * @return the maximum size of panes as a fraction, or a negative value if a pixel size is used.
+     */
+    public float getPaneSizeMaxPercent() {
+        return mPaneSizeMaxPercent;
+    }
+
+    /**
+     * Sets the maximum size of panes, as a fraction of the width or height of the layout.
+     *
+     * @param paneSizeMaxPercent the maximum size of panes as a fraction, or a negative value to use the pixel size
+     */
+    public void setPaneSizeMaxPercent(float paneSizeMaxPercent) {
+        mPaneSizeMaxPercent = paneSizeMaxPercent;
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Sets the minimum width of a column, overriding the minimum size of panes. A
+     * fraction of the width takes precedence over pixels.
+     *
+     * @param column  the column, 0 for the left one
+     * @param pixels  the minimum width in pixels, or a negative value
+     * @param percent the minimum width as a fraction of the width, or a negative value
+     */
+    public void setColumnSizeMin(int column, int pixels, float percent) {
+        checkAxisIndex(column);
+        mSplitGrid.getColumns().setPaneSizeMin(column, pixels, percent);
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Sets the maximum width of a column, overriding the maximum size of panes. A
+     * fraction of the width takes precedence over pixels.
+     *
+     * @param column  the column, 0 for the left one
+     * @param pixels  the maximum width in pixels, or a negative value
+     * @param percent the maximum width as a fraction of the width, or a negative value
+     */
+    public void setColumnSizeMax(int column, int pixels, float percent) {
+        checkAxisIndex(column);
+        mSplitGrid.getColumns().setPaneSizeMax(column, pixels, percent);
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Sets the minimum height of a row, overriding the minimum size of panes. A
+     * fraction of the height takes precedence over pixels.
+     *
+     * @param row     the row, 0 for the top one
+     * @param pixels  the minimum height in pixels, or a negative value
+     * @param percent the minimum height as a fraction of the height, or a negative value
+     */
+    public void setRowSizeMin(int row, int pixels, float percent) {
+        checkAxisIndex(row);
+        mSplitGrid.getRows().setPaneSizeMin(row, pixels, percent);
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Sets the maximum height of a row, overriding the maximum size of panes. A
+     * fraction of the height takes precedence over pixels.
+     *
+     * @param row     the row, 0 for the top one
+     * @param pixels  the maximum height in pixels, or a negative value
+     * @param percent the maximum height as a fraction of the height, or a negative value
+     */
+    public void setRowSizeMax(int row, int pixels, float percent) {
+        checkAxisIndex(row);
+        mSplitGrid.getRows().setPaneSizeMax(row, pixels, percent);
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Sets the share of the width a column gets. Weights split the columns until the
+     * vertical splitter is placed, by the user or a setter.
+     *
+     * @param column the column, 0 for the left one
+     * @param weight the weight of the column, values that are not positive count as 1
+     */
+    public void setColumnWeight(int column, float weight) {
+        checkAxisIndex(column);
+        if (mSplitGrid.getColumns().setPaneWeight(column, weight) && !mColumnsExplicit) {
+            mSplitGrid.getColumns().setSplitterCount(1, true);
+            requestLayout();
+            invalidate();
+        }
+    }
+
+    /**
+     * Sets the share of the height a row gets. Weights split the rows until the
+     * horizontal splitter is placed, by the user or a setter.
+     *
+     * @param row    the row, 0 for the top one
+     * @param weight the weight of the row, values that are not positive count as 1
+     */
+    public void setRowWeight(int row, float weight) {
+        checkAxisIndex(row);
+        if (mSplitGrid.getRows().setPaneWeight(row, weight) && !mRowsExplicit) {
+            mSplitGrid.getRows().setSplitterCount(1, true);
+            requestLayout();
+            invalidate();
+        }
+    }
+
+    /**
+     * Gets whether a column is collapsed.
+     *
+     * @param column the column, 0 for the left one
+     * @return whether the column is collapsed
+     */
+    public boolean isColumnCollapsed(int column) {
+        checkAxisIndex(column);
+        return mSplitGrid.getColumns().isPaneCollapsed(column);
+    }
+
+    /**
+     * Collapses or expands a column, moving the vertical splitter to the edge of the
+     * layout and back. Dragging the splitter also opens the column again.
+     *
+     * @param column    the column, 0 for the left one
+     * @param collapsed whether the column is collapsed
+     */
+    public void setColumnCollapsed(int column, boolean collapsed) {
+        checkAxisIndex(column);
+        setCollapsed(mSplitGrid.getColumns(), column, collapsed, SplitGrid.HIT_COLUMNS);
+    }
+
+    /**
+     * Gets whether a row is collapsed.
+     *
+     * @param row the row, 0 for the top one
+     * @return whether the row is collapsed
+     */
+    public boolean isRowCollapsed(int row) {
+        checkAxisIndex(row);
+        return mSplitGrid.getRows().isPaneCollapsed(row);
+    }
+
+    /**
+     * Collapses or expands a row, moving the horizontal splitter to the edge of the
+     * layout and back. Dragging the splitter also opens the row again.
+     *
+     * @param row       the row, 0 for the top one
+     * @param collapsed whether the row is collapsed
+     */
+    public void setRowCollapsed(int row, boolean collapsed) {
+        checkAxisIndex(row);
+        setCollapsed(mSplitGrid.getRows(), row, collapsed, SplitGrid.HIT_ROWS);
+    }
+
+    private void setCollapsed(MultiSplitGeometry axis, int pane, boolean collapsed, int splitter) {
+        if (axis.isPaneCollapsed(pane) == collapsed) {
+            return;
+        }
+        // Only one side of a splitter can be collapsed at a time
+        if (collapsed) {
+            axis.setPaneCollapsed(1 - pane, false);
+        }
+        axis.setPaneCollapsed(pane, collapsed);
+        onSplitterPositionSet(splitter);
+    }
+
+    private void markExplicit(int splitters) {
+        mColumnsExplicit |= (splitters & SplitGrid.HIT_COLUMNS) != 0;
+        mRowsExplicit |= (splitters & SplitGrid.HIT_ROWS) != 0;
+    }
+
+    private static void checkAxisIndex(int index) {
+        if (index < 0 || index > 1) {
+            throw new IndexOutOfBoundsException("Invalid column or row index " + index + ", count is 2");
+        }
+    }
+
+    /**
+     * Gets the OnSplitterPositionChangedListener to receive callbacks when a splitter position is changed
+     *
+     * @return the OnSplitterPositionChangedListener to receive callbacks when a splitter position is changed
+     */
+    public OnSplitterPositionChangedListener getOnSplitterPositionChangedListener() {
+        return mOnSplitterPositionChangedListener;
+    }
+
+    /**
+     * Sets the OnSplitterPositionChangedListener to receive callbacks when a splitter position is changed
+     *
+     * @param l the OnSplitterPositionChangedListener to receive callbacks when a splitter position is changed
+     */
+    public void setOnSplitterPositionChangedListener(OnSplitterPositionChangedListener l) {
+        this.mOnSplitterPositionChangedListener = l;
+    }
+
+    private void notifySplitterPositionChanged(int splitters, boolean fromUser) {
+        if (mOnSplitterPositionChangedListener != null) {
+            mOnSplitterPositionChangedListener.onSplitterPositionChanged(this, splitters, fromUser);
+        }
+    }
+
+    /**
+     * Holds important values when we need to save instance state.
+     */
+    public static class SavedState extends BaseSavedState {
+        public static final Creator<SavedState> CREATOR = new Creator<SavedState>() {
+
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+
+        };
+
+        float mSplitterPositionPercentX;
+        float mSplitterPositionPercentY;
+        int mCollapsedColumn = -1;
+        int mCollapsedRow = -1;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            mSplitterPositionPercentX = in.readFloat();
+            mSplitterPositionPercentY = in.readFloat();
+            mCollapsedColumn = in.readInt();
+            mCollapsedRow = in.readInt();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeFloat(mSplitterPositionPercentX);
+            out.writeFloat(mSplitterPositionPercentY);
+            out.writeInt(mCollapsedColumn);
+            out.writeInt(mCollapsedRow);
+        }
+    }
+
+}
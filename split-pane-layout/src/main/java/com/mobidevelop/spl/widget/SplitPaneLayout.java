@@ -19,30 +19,53 @@
 
 package com.mobidevelop.spl.widget;
 
+import android.animation.TimeInterpolator;
 import android.content.Context;
+import android.content.res.Resources;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Rect;
 import android.graphics.drawable.Drawable;
-import android.graphics.drawable.PaintDrawable;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.util.TypedValue;
+import android.view.Choreographer;
+import android.view.Display;
 import android.view.HapticFeedbackConstants;
 import android.view.KeyEvent;
 import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
 import android.view.ViewConfiguration;
 import android.view.ViewGroup;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.LinearInterpolator;
 
 import com.mobidevelop.spl.R;
+import com.mobidevelop.spl.core.DragPredictor;
+import com.mobidevelop.spl.core.MultiSplitGeometry;
+import com.mobidevelop.spl.core.RelayoutThrottle;
+import com.mobidevelop.spl.core.SplitPositionMailbox;
+import com.mobidevelop.spl.core.SplitPositionStore;
+import com.mobidevelop.spl.core.SplitSnapper;
+import com.mobidevelop.spl.core.SplitterDamage;
+import com.mobidevelop.spl.core.SplitterAnimation;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
 /**
- * A layout that splits the available space between two child views.
+ * A layout that splits the available space between two or more child views.
  * <p/>
- * An optionally movable bar exists between the children which allows the user
- * to redistribute the space allocated to each view.
+ * An optionally movable bar exists between each pair of adjacent children which
+ * allows the user to redistribute the space allocated to each view. Methods
+ * without a splitter index operate on the first splitter.
  */
 public class SplitPaneLayout extends ViewGroup {
 
@@ -50,44 +73,301 @@ public class SplitPaneLayout extends ViewGroup {
         void onSplitterPositionChanged(SplitPaneLayout splitPaneLayout, boolean fromUser);
     }
 
+    /**
+     * Receives a continuous stream of splitter positions, including while the
+     * splitter is being dragged or is settling after a fling. Updates are coalesced
+     * to at most one per display frame and carry only primitive values.
+     */
+    public interface OnSplitterPositionUpdateListener {
+        /**
+         * The user grabbed the splitter.
+         */
+        int PHASE_START = 0;
+        /**
+         * The user is dragging the splitter.
+         */
+        int PHASE_MOVE = 1;
+        /**
+         * The splitter is animating towards its resting position.
+         */
+        int PHASE_SETTLE = 2;
+        /**
+         * The splitter came to rest, by the user or in code.
+         */
+        int PHASE_END = 3;
+
+        void onSplitterPositionUpdate(SplitPaneLayout splitPaneLayout, int splitter, int position, float fraction, boolean fromUser, int phase);
+    }
+
+    /**
+     * Receives the visible size of each pane, so heavy content such as video, maps or
+     * charts can throttle itself while its pane is small. Sizes include panes clipped
+     * while a splitter is dragged, animated or previewed, and are reported at most
+     * once per display frame and only when they changed.
+     */
+    public interface OnPaneSizeChangeListener {
+        /**
+         * The pane is at least the size threshold.
+         */
+        int STATE_NORMAL = 0;
+        /**
+         * The pane is visible, but below the size threshold.
+         */
+        int STATE_SMALL = 1;
+        /**
+         * The pane is collapsed or has no visible size.
+         */
+        int STATE_COLLAPSED = 2;
+
+        void onPaneSizeChanged(SplitPaneLayout splitPaneLayout, int pane, int size, float fraction);
+
+        void onPaneStateChanged(SplitPaneLayout splitPaneLayout, int pane, int state);
+    }
+
+    /**
+     * Releases the views of collapsed panes and creates them again when the panes
+     * are expanded.
+     */
+    public interface PaneFactory {
+        View onCreatePane(SplitPaneLayout splitPaneLayout, int pane);
+
+        void onReleasePane(SplitPaneLayout splitPaneLayout, int pane, View view);
+    }
+
     public static final int ORIENTATION_HORIZONTAL = 0;
     public static final int ORIENTATION_VERTICAL = 1;
 
+    /**
+     * The panes keep their size while dragging and an overlay shows where the
+     * splitter will be dropped.
+     */
+    public static final int RESIZE_MODE_OVERLAY = 0;
+    /**
+     * The panes follow the splitter while dragging. Relayouts are throttled to
+     * what the panes can afford, falling back to the overlay when they are too
+     * expensive to keep up with the display.
+     */
+    public static final int RESIZE_MODE_LIVE = 1;
+    /**
+     * The panes follow the splitter while dragging without being measured. The
+     * panes next to the splitter are drawn from hardware layers, clipped and
+     * translated, and measured once when the drag ends.
+     */
+    public static final int RESIZE_MODE_PREVIEW = 2;
+
+    /**
+     * The number of splitters positions can be posted for from other threads.
+     */
+    public static final int POSTED_SPLITTERS_MAX = 16;
+
+    private static final long ANIMATION_DURATION = 250;
+    private static final int KEY_DURATION = 120;
+    // A little longer than the key repeat interval, so holding a key never lets the splitter stop
+    private static final int KEY_REPEAT_DURATION = 80;
+    // The store file is tiny, so a measure can afford to wait this long for it
+    private static final long POSITION_STORE_TIMEOUT = 50;
+
     private int mOrientation = 0;
-    private int mSplitterSize = 8;
     private boolean mSplitterMovable = true;
-    private int mSplitterPosition = Integer.MIN_VALUE;
-    private float mSplitterPositionPercent = 0.5f;
+    private int mSplitterResizeMode = RESIZE_MODE_OVERLAY;
     private int mSplitterTouchSlop = 0;
 
-    private int mPaneSizeMin = 0;
+    private final MultiSplitGeometry mGeometry = new MultiSplitGeometry();
+    private final RelayoutThrottle mRelayoutThrottle = new RelayoutThrottle();
+    // The latest position a live resize should relayout at, applied once the throttle allows
+    private int mLiveResizePosition;
+    private boolean mLiveResizePending = false;
+    private final Choreographer.FrameCallback mLiveResizeFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mLiveResizePending = false;
+            if (isDragging && isLiveResizing) {
+                applyPendingLiveResize();
+            }
+        }
+    };
 
     private Drawable mSplitterDrawable;
     private Drawable mSplitterDraggingDrawable;
+    // The dragging drawable is only created once it is first shown
+    private int mSplitterDraggingDrawableRes = 0;
+    private int mSplitterDraggingColor = SplitterResources.DEFAULT_COLOR;
 
     private Rect mSplitterBounds = new Rect();
     private Rect mSplitterTouchBounds = new Rect();
     private Rect mSplitterDraggingBounds = new Rect();
+    private Rect mDirtyBounds = new Rect();
+    private final SplitterDamage mDragDamage = new SplitterDamage();
+
+    private int[] mChildWidthSpecs = new int[2];
+    private int[] mChildHeightSpecs = new int[2];
+    private View[] mMeasuredChildren = new View[2];
+
+    private int mMeasuredWidthSpec = -1;
+    private int mMeasuredHeightSpec = -1;
+    private int mMeasuredOrientation = -1;
+    private int mMeasuredSplitterSize = -1;
+    private int mMeasuredChildCount = -1;
+    private int[] mMeasuredPositions = new int[1];
+    private boolean mSplitterPositionExplicit = false;
 
     private OnSplitterPositionChangedListener mOnSplitterPositionChangedListener;
+    private SplitPositionStore mPositionStore;
+    private boolean mPositionStoreRestorePending;
+    private boolean mPositionStoreLoadAwaited;
+    private final Runnable mPositionStoreLoadedRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mPositionStoreLoadAwaited = false;
+            if (mPositionStoreRestorePending) {
+                requestLayout();
+            }
+        }
+    };
+    private SplitterGroup mSplitterGroup;
+    private OnSplitterPositionUpdateListener mOnSplitterPositionUpdateListener;
+
+    private boolean mPositionUpdatePending = false;
+    private int mPendingUpdateSplitter;
+    private int mPendingUpdatePosition;
+    private int mPendingUpdatePhase;
+    private final Choreographer.FrameCallback mPositionUpdateFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            flushPositionUpdate();
+        }
+    };
+    private final SplitPositionMailbox mPositionMailbox = new SplitPositionMailbox(POSTED_SPLITTERS_MAX);
+    private final Runnable mApplyPostedPositionsRunnable = new Runnable() {
+        @Override
+        public void run() {
+            applyPostedPositions();
+        }
+    };
+    // Posted positions hop to the UI thread before they touch the view: before API 24
+    // a view which is not attached queues posts from a worker on that worker's own run
+    // queue, which never runs, and the mailbox would never schedule another drain.
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mSchedulePostedPositionsRunnable = new Runnable() {
+        @Override
+        public void run() {
+            schedulePostedPositions();
+        }
+    };
+    private final SplitPositionMailbox.Receiver mPostedPositionReceiver = new SplitPositionMailbox.Receiver() {
+        @Override
+        public void onPosition(int splitter, int position) {
+            if (canApplyPostedPosition(splitter) && mGeometry.getPosition(splitter) != position) {
+                setSplitterPosition(splitter, position);
+            }
+        }
+
+        @Override
+        public void onPositionPercent(int splitter, float position) {
+            if (canApplyPostedPosition(splitter) && mGeometry.getPositionPercent(splitter) != position) {
+                setSplitterPositionPercent(splitter, position);
+            }
+        }
+    };
+
+    private OnPaneSizeChangeListener mOnPaneSizeChangeListener;
+    private int mPaneSizeThreshold = 0;
+    private int[] mReportedPaneSizes = new int[0];
+    private int[] mReportedPaneStates = new int[0];
+    private boolean mPaneSizeUpdatePending = false;
+    private final Choreographer.FrameCallback mPaneSizeFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mPaneSizeUpdatePending = false;
+            reportPaneSizes();
+        }
+    };
+    private SplitPaneTracer mTracer;
 
     private int lastTouchX;
     private int lastTouchY;
+    private int mActivePointerId = MotionEvent.INVALID_POINTER_ID;
 
     private boolean isDragging = false;
     private boolean isMovingSplitter = false;
+    private int mDraggingSplitter = MultiSplitGeometry.NO_SPLITTER;
+    // Where the finger has dragged the splitter to; the dragging bounds may be drawn ahead of it
+    private int mDragPosition;
+    private int mDragStartPosition;
+    private final DragPredictor mDragPredictor = new DragPredictor();
+    private int mSplitterPredictionTime = 0;
+    private int mActiveSplitter = 0;
 
     private boolean isMeasured = false;
 
+    private int mUpdateDepth = 0;
+    private boolean mRemeasurePending = false;
+    private boolean mNotifyPending = false;
+    private boolean mNotifyPendingFromUser = false;
+
+    private boolean isPreviewResizing = false;
+    private int mPreviewSplitter = MultiSplitGeometry.NO_SPLITTER;
+    private final int[] mPreviewLayerTypes = new int[2];
+
+    // While the window is resized continuously, the panes keep their measurement and
+    // are scaled to their new size; they are measured once the size settles
+    private int mResizeSettleTime = 0;
+    private boolean isWindowResizing = false;
+    private long mLastResizeMillis;
+    private int mLastResizeWidth;
+    private int mLastResizeHeight;
+    private float[] mResizeFractions = new float[1];
+    private final Runnable mResizeSettleRunnable = new Runnable() {
+        @Override
+        public void run() {
+            finishWindowResize();
+        }
+    };
+
+    private int mOrientationBreakpoint = 0;
+    private int mOrientationHysteresis = 0;
+
+    private boolean isLiveResizing = false;
+    private long mLiveMeasureStartNanos;
+    private long mLiveMeasureNanos;
+
+    private int mPaneCollapseThreshold = 0;
+    private int mInitialCollapsedPane = -1;
+    private int mDragExpandedPane = -1;
+    private PaneFactory mPaneFactory;
+
+    private boolean mSplitterFlingEnabled = true;
+    private final SplitSnapper mSnapper = new SplitSnapper();
+    private VelocityTracker mVelocityTracker;
+
+    private final SplitterAnimation mSplitterAnimation = new SplitterAnimation();
+    private final TimeInterpolator mFlingInterpolator = new DecelerateInterpolator();
+    private final TimeInterpolator mKeyRepeatInterpolator = new LinearInterpolator();
+    private TimeInterpolator mDefaultInterpolator;
+    private TimeInterpolator mAnimationInterpolator;
+    private boolean mAnimationFromUser;
+    private int mAnimatingSplitter = MultiSplitGeometry.NO_SPLITTER;
+    private final Choreographer.FrameCallback mAnimationFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            onAnimationFrame(frameTimeNanos);
+        }
+    };
+
+    // While set, the splitter is drawn at mTransientPosition and its neighbouring
+    // panes are clipped and translated instead of being measured again
+    private int mTransientSplitter = MultiSplitGeometry.NO_SPLITTER;
+    private int mTransientPosition;
+
     public SplitPaneLayout(Context context) {
         super(context);
-        mSplitterPositionPercent = 0.5f;
-        mSplitterDrawable = new PaintDrawable(0x88FFFFFF);
-        mSplitterDraggingDrawable = new PaintDrawable(0x88FFFFFF);
+        mGeometry.setSplitterSize(8);
+        mSplitterDrawable = SplitterResources.newColorDrawable(SplitterResources.DEFAULT_COLOR);
     }
 
     public SplitPaneLayout(Context context, AttributeSet attrs) {
         super(context, attrs);
+        mGeometry.setSplitterSize(8);
         extractAttributes(context, attrs);
         setDescendantFocusability(FOCUS_AFTER_DESCENDANTS);
         setFocusable(true);
@@ -96,6 +376,7 @@ public class SplitPaneLayout extends ViewGroup {
 
     public SplitPaneLayout(Context context, AttributeSet attrs, int defStyle) {
         super(context, attrs, defStyle);
+        mGeometry.setSplitterSize(8);
         extractAttributes(context, attrs);
         setDescendantFocusability(FOCUS_AFTER_DESCENDANTS);
         setFocusable(true);
@@ -106,18 +387,31 @@ public class SplitPaneLayout extends ViewGroup {
         if (attrs != null) {
             TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SplitPaneLayout);
             mOrientation = a.getInt(R.styleable.SplitPaneLayout_orientation, 0);
-            mSplitterSize = a.getDimensionPixelSize(R.styleable.SplitPaneLayout_splitterSize, context.getResources().getDimensionPixelSize(R.dimen.spl_default_splitter_size));
+            if (a.hasValue(R.styleable.SplitPaneLayout_splitterSize)) {
+                mGeometry.setSplitterSize(a.getDimensionPixelSize(R.styleable.SplitPaneLayout_splitterSize, 0));
+            } else {
+                mGeometry.setSplitterSize(context.getResources().getDimensionPixelSize(R.dimen.spl_default_splitter_size));
+            }
             mSplitterMovable = a.getBoolean(R.styleable.SplitPaneLayout_splitterMovable, true);
+            mSplitterResizeMode = a.getInt(R.styleable.SplitPaneLayout_splitterResizeMode, RESIZE_MODE_OVERLAY);
+            mSplitterFlingEnabled = a.getBoolean(R.styleable.SplitPaneLayout_splitterFlingEnabled, true);
+            mSplitterPredictionTime = Math.max(a.getInt(R.styleable.SplitPaneLayout_splitterPredictionTime, 0), 0);
+            mSnapper.setSnapToEdges(a.getBoolean(R.styleable.SplitPaneLayout_splitterSnapToEdges, false));
+            String snapPoints = a.getString(R.styleable.SplitPaneLayout_splitterSnapPoints);
+            if (snapPoints != null) {
+                parseSnapPoints(snapPoints);
+            }
             TypedValue value = a.peekValue(R.styleable.SplitPaneLayout_splitterPosition);
             if (value != null) {
                 if (value.type == TypedValue.TYPE_DIMENSION) {
-                    mSplitterPosition = a.getDimensionPixelSize(R.styleable.SplitPaneLayout_splitterPosition, Integer.MIN_VALUE);
+                    mGeometry.set(0, a.getDimensionPixelSize(R.styleable.SplitPaneLayout_splitterPosition, MultiSplitGeometry.POSITION_UNSET), mGeometry.getPositionPercent(0));
+                    mSplitterPositionExplicit = true;
                 } else if (value.type == TypedValue.TYPE_FRACTION) {
-                    mSplitterPositionPercent = a.getFraction(R.styleable.SplitPaneLayout_splitterPosition, 100, 100, 50) * 0.01f;
+                    mGeometry.set(0, mGeometry.getPosition(0), a.getFraction(R.styleable.SplitPaneLayout_splitterPosition, 100, 100, 50) * 0.01f);
+                    mSplitterPositionExplicit = true;
                 }
             } else {
-                mSplitterPosition = Integer.MIN_VALUE;
-                mSplitterPositionPercent = 0.5f;
+                mGeometry.set(0, MultiSplitGeometry.POSITION_UNSET, 0.5f);
             }
 
             value = a.peekValue(R.styleable.SplitPaneLayout_splitterBackground);
@@ -129,27 +423,94 @@ public class SplitPaneLayout extends ViewGroup {
                         value.type == TypedValue.TYPE_INT_COLOR_ARGB4 ||
                         value.type == TypedValue.TYPE_INT_COLOR_RGB8 ||
                         value.type == TypedValue.TYPE_INT_COLOR_RGB4) {
-                    mSplitterDrawable = new PaintDrawable(a.getColor(R.styleable.SplitPaneLayout_splitterBackground, 0xFF000000));
+                    mSplitterDrawable = SplitterResources.newColorDrawable(a.getColor(R.styleable.SplitPaneLayout_splitterBackground, 0xFF000000));
                 }
             }
             value = a.peekValue(R.styleable.SplitPaneLayout_splitterDraggingBackground);
             if (value != null) {
                 if (value.type == TypedValue.TYPE_REFERENCE ||
                         value.type == TypedValue.TYPE_STRING) {
-                    mSplitterDraggingDrawable = a.getDrawable(R.styleable.SplitPaneLayout_splitterDraggingBackground);
+                    mSplitterDraggingDrawableRes = value.resourceId != 0 ? value.resourceId : value.data;
                 } else if (value.type == TypedValue.TYPE_INT_COLOR_ARGB8 ||
                         value.type == TypedValue.TYPE_INT_COLOR_ARGB4 ||
                         value.type == TypedValue.TYPE_INT_COLOR_RGB8 ||
                         value.type == TypedValue.TYPE_INT_COLOR_RGB4) {
-                    mSplitterDraggingDrawable = new PaintDrawable(a.getColor(R.styleable.SplitPaneLayout_splitterDraggingBackground, 0x88FFFFFF));
+                    mSplitterDraggingColor = a.getColor(R.styleable.SplitPaneLayout_splitterDraggingBackground, SplitterResources.DEFAULT_COLOR);
                 }
+            }
+            if (a.hasValue(R.styleable.SplitPaneLayout_splitterTouchSlop)) {
+                mSplitterTouchSlop = a.getDimensionPixelSize(R.styleable.SplitPaneLayout_splitterTouchSlop, 0);
+            } else {
+                mSplitterTouchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
+            }
+            value = a.peekValue(R.styleable.SplitPaneLayout_paneSizeMin);
+            if (value != null && value.type == TypedValue.TYPE_FRACTION) {
+                mGeometry.setPaneSizeMinPercent(getFraction(a, R.styleable.SplitPaneLayout_paneSizeMin));
+            } else {
+                mGeometry.setPaneSizeMin(a.getDimensionPixelSize(R.styleable.SplitPaneLayout_paneSizeMin, 0));
+            }
+            value = a.peekValue(R.styleable.SplitPaneLayout_paneSizeMax);
+            if (value != null && value.type == TypedValue.TYPE_FRACTION) {
+                mGeometry.setPaneSizeMaxPercent(getFraction(a, R.styleable.SplitPaneLayout_paneSizeMax));
             } else {
-                mSplitterDraggingDrawable = new PaintDrawable(0x88FFFFFF);
+                mGeometry.setPaneSizeMax(a.getDimensionPixelSize(R.styleable.SplitPaneLayout_paneSizeMax, -1));
             }
-            mSplitterTouchSlop = a.getDimensionPixelSize(R.styleable.SplitPaneLayout_splitterTouchSlop, ViewConfiguration.get(context).getScaledTouchSlop());
-            mPaneSizeMin = a.getDimensionPixelSize(R.styleable.SplitPaneLayout_paneSizeMin, 0);
+            mPaneCollapseThreshold = a.getDimensionPixelSize(R.styleable.SplitPaneLayout_paneCollapseThreshold, 0);
+            mResizeSettleTime = Math.max(a.getInt(R.styleable.SplitPaneLayout_resizeSettleTime, 0), 0);
+            mPaneSizeThreshold = a.getDimensionPixelSize(R.styleable.SplitPaneLayout_paneSizeThreshold, 0);
+            mOrientationBreakpoint = a.getDimensionPixelSize(R.styleable.SplitPaneLayout_orientationBreakpoint, 0);
+            mOrientationHysteresis = a.getDimensionPixelSize(R.styleable.SplitPaneLayout_orientationHysteresis, 0);
+            mInitialCollapsedPane = a.getInt(R.styleable.SplitPaneLayout_collapsedPane, -1);
             a.recycle();
         }
+        updateSplitterDrawableState();
+    }
+
+    @Override
+    protected void onFinishInflate() {
+        super.onFinishInflate();
+        if (mInitialCollapsedPane >= 0) {
+            setPaneCollapsed(mInitialCollapsedPane, true);
+            mInitialCollapsedPane = -1;
+        }
+    }
+
+    /**
+     * Gets a fraction attribute such as {@code 25%} as a value between 0 and 1.
+     */
+    private static float getFraction(TypedArray a, int index) {
+        return a.getFraction(index, 1, 1, -1);
+    }
+
+    /**
+     * Parses a comma separated list of snap points, each a percentage such as
+     * {@code 25%}, or a size in {@code px} or {@code dp}.
+     */
+    private void parseSnapPoints(String snapPoints) {
+        String[] values = snapPoints.split(",");
+        float[] fractions = new float[values.length];
+        int[] pixels = new int[values.length];
+        int fractionCount = 0;
+        int pixelCount = 0;
+        float density = getResources().getDisplayMetrics().density;
+        for (String value : values) {
+            value = value.trim();
+            try {
+                if (value.endsWith("%")) {
+                    fractions[fractionCount++] = Float.parseFloat(value.substring(0, value.length() - 1)) * 0.01f;
+                } else if (value.endsWith("dp") || value.endsWith("dip")) {
+                    pixels[pixelCount++] = (int) (Float.parseFloat(value.substring(0, value.length() - (value.endsWith("dp") ? 2 : 3))) * density + 0.5f);
+                } else if (value.endsWith("px")) {
+                    pixels[pixelCount++] = (int) Float.parseFloat(value.substring(0, value.length() - 2));
+                } else if (value.length() > 0) {
+                    throw new IllegalArgumentException("Invalid snap point \"" + value + "\", expected %, dp or px.");
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid snap point \"" + value + "\".", e);
+            }
+        }
+        mSnapper.setFractions(Arrays.copyOf(fractions, fractionCount));
+        mSnapper.setPixels(Arrays.copyOf(pixels, pixelCount));
     }
 
     private void computeSplitterPosition() {
@@ -158,52 +519,73 @@ public class SplitPaneLayout extends ViewGroup {
         int measuredHeight = getMeasuredHeight();
 
         if (measuredWidth > 0 && measuredHeight > 0) {
-            switch (mOrientation) {
-                case ORIENTATION_HORIZONTAL: {
-                    if (mSplitterPosition == Integer.MIN_VALUE && mSplitterPositionPercent < 0) {
-                        mSplitterPosition = measuredWidth / 2;
-                    } else if (mSplitterPosition == Integer.MIN_VALUE && mSplitterPositionPercent >= 0) {
-                        mSplitterPosition = (int) (measuredWidth * mSplitterPositionPercent);
-                        if (!between(mSplitterPosition, getMinSplitterPosition(), getMaxSplitterPosition())) {
-                            mSplitterPosition = clamp(mSplitterPosition, getMinSplitterPosition(), getMaxSplitterPosition());
-                            mSplitterPositionPercent = (float) mSplitterPosition / (float) measuredWidth;
-                        }
-                    } else if (mSplitterPosition != Integer.MIN_VALUE && mSplitterPositionPercent < 0) {
-                        if (!between(mSplitterPosition, getMinSplitterPosition(), getMaxSplitterPosition())) {
-                            mSplitterPosition = clamp(mSplitterPosition, getMinSplitterPosition(), getMaxSplitterPosition());
-                        }
-                        mSplitterPositionPercent = (float) mSplitterPosition / (float) measuredWidth;
-                    }
-                    mSplitterBounds.set(mSplitterPosition - (mSplitterSize / 2), 0, mSplitterPosition + (mSplitterSize / 2), measuredHeight);
-                    mSplitterTouchBounds.set(mSplitterBounds.left - mSplitterTouchSlop, mSplitterBounds.top, mSplitterBounds.right + mSplitterTouchSlop, mSplitterBounds.bottom);
-                    break;
-                }
-                case ORIENTATION_VERTICAL: {
-                    if (mSplitterPosition == Integer.MIN_VALUE && mSplitterPositionPercent < 0) {
-                        mSplitterPosition = measuredHeight / 2;
-                    } else if (mSplitterPosition == Integer.MIN_VALUE && mSplitterPositionPercent >= 0) {
-                        mSplitterPosition = (int) (measuredHeight * mSplitterPositionPercent);
-                        if (!between(mSplitterPosition, getMinSplitterPosition(), getMaxSplitterPosition())) {
-                            mSplitterPosition = clamp(mSplitterPosition, getMinSplitterPosition(), getMaxSplitterPosition());
-                            mSplitterPositionPercent = (float) mSplitterPosition / (float) measuredHeight;
-                        }
-                    } else if (mSplitterPosition != Integer.MIN_VALUE && mSplitterPositionPercent < 0) {
-                        if (!between(mSplitterPosition, getMinSplitterPosition(), getMaxSplitterPosition())) {
-                            mSplitterPosition = clamp(mSplitterPosition, getMinSplitterPosition(), getMaxSplitterPosition());
-                        }
-                        mSplitterPositionPercent = (float) mSplitterPosition / (float) measuredHeight;
-                    }
-                    mSplitterBounds.set(0, mSplitterPosition - (mSplitterSize / 2), measuredWidth, mSplitterPosition + (mSplitterSize / 2));
-                    mSplitterTouchBounds.set(mSplitterBounds.left, mSplitterBounds.top - mSplitterTouchSlop / 2, mSplitterBounds.right, mSplitterBounds.bottom + mSplitterTouchSlop / 2);
-                    break;
-                }
+            syncSplitterCount();
+            syncPaneConstraints();
+            mGeometry.setLength(mOrientation == ORIENTATION_HORIZONTAL ? measuredWidth : measuredHeight);
+            mGeometry.resolve();
+        }
+
+    }
+
+    /**
+     * Matches the number of splitters to the number of children. Splitters are
+     * spread evenly unless a position was set explicitly, in which case added
+     * splitters split the last pane. The first splitter is kept even while there
+     * are fewer than two children so it can be configured up front.
+     */
+    private void syncSplitterCount() {
+        int count = Math.max(1, getChildCount() - 1);
+        if (count != mGeometry.getSplitterCount()) {
+            mGeometry.setSplitterCount(count, !mSplitterPositionExplicit);
+            if (mActiveSplitter >= count) {
+                mActiveSplitter = 0;
             }
         }
+    }
+
+    /**
+     * Copies the constraints of every pane from the layout params of its view. The
+     * geometry only resolves them again when they actually changed.
+     */
+    private void syncPaneConstraints() {
+        int count = Math.min(getChildCount(), mGeometry.getPaneCount());
+        boolean weightsChanged = false;
+        for (int i = 0; i < count; i++) {
+            LayoutParams lp = (LayoutParams) getChildAt(i).getLayoutParams();
+            mGeometry.setPaneSizeMin(i, lp.sizeMin, lp.sizeMinPercent);
+            mGeometry.setPaneSizeMax(i, lp.sizeMax, lp.sizeMaxPercent);
+            weightsChanged |= mGeometry.setPaneWeight(i, lp.weight);
+        }
+        if (weightsChanged && !mSplitterPositionExplicit) {
+            mGeometry.setSplitterCount(mGeometry.getSplitterCount(), true);
+        }
+    }
 
+    /**
+     * Computes the bounds of a splitter.
+     *
+     * @param index  the index of the splitter
+     * @param bounds receives the bounds of the splitter
+     */
+    private void getSplitterBounds(int index, Rect bounds) {
+        switch (mOrientation) {
+            case ORIENTATION_HORIZONTAL:
+                bounds.set(mGeometry.getSplitterStart(index), 0, mGeometry.getSplitterEnd(index), getMeasuredHeight());
+                break;
+            case ORIENTATION_VERTICAL:
+                bounds.set(0, mGeometry.getSplitterStart(index), getMeasuredWidth(), mGeometry.getSplitterEnd(index));
+                break;
+        }
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if (mTracer != null) {
+            mTracer.beginSection(this, SplitPaneTracer.SECTION_MEASURE);
+        }
+        if (isLiveResizing) {
+            mLiveMeasureStartNanos = System.nanoTime();
+        }
         super.onMeasure(widthMeasureSpec, heightMeasureSpec);
 
         int measuredWidth = getMeasuredWidth();
@@ -213,77 +595,301 @@ public class SplitPaneLayout extends ViewGroup {
 
         if (measuredWidth > 0 && measuredHeight > 0) {
 
+            updateOrientationForWidth(measuredWidth);
+            boolean resizing = trackWindowResize(measuredWidth, measuredHeight);
+
+            if (mPositionStoreRestorePending) {
+                restoreSplitterPositions();
+            }
             computeSplitterPosition();
 
-            switch (mOrientation) {
-                case ORIENTATION_HORIZONTAL: {
-                    getChildAt(0).measure(MeasureSpec.makeMeasureSpec(mSplitterPosition - (mSplitterSize / 2), MeasureSpec.EXACTLY), MeasureSpec.makeMeasureSpec(measuredHeight, MeasureSpec.EXACTLY));
-                    getChildAt(1).measure(MeasureSpec.makeMeasureSpec(measuredWidth - (mSplitterSize / 2) - mSplitterPosition, MeasureSpec.EXACTLY), MeasureSpec.makeMeasureSpec(measuredHeight, MeasureSpec.EXACTLY));
-                    break;
-                }
-                case ORIENTATION_VERTICAL: {
-                    getChildAt(0).measure(MeasureSpec.makeMeasureSpec(measuredWidth, MeasureSpec.EXACTLY), MeasureSpec.makeMeasureSpec(mSplitterPosition - (mSplitterSize / 2), MeasureSpec.EXACTLY));
-                    getChildAt(1).measure(MeasureSpec.makeMeasureSpec(measuredWidth, MeasureSpec.EXACTLY), MeasureSpec.makeMeasureSpec(measuredHeight - (mSplitterSize / 2) - mSplitterPosition, MeasureSpec.EXACTLY));
-                    break;
-                }
+            int childCount = getChildCount();
+            if (resizing) {
+                measurePanes(measuredWidth, measuredHeight, childCount, true);
+            } else if (!isMeasureCacheValid(widthMeasureSpec, heightMeasureSpec, childCount)) {
+                measurePanes(measuredWidth, measuredHeight, childCount, false);
+                saveMeasureCache(widthMeasureSpec, heightMeasureSpec, childCount);
             }
 
             isMeasured = true;
         }
+        if (isLiveResizing) {
+            mLiveMeasureNanos = System.nanoTime() - mLiveMeasureStartNanos;
+        }
+        if (mTracer != null) {
+            mTracer.endSection(this, SplitPaneTracer.SECTION_MEASURE);
+        }
+    }
+
+    /**
+     * Picks the orientation from the width when a breakpoint is set. The orientation
+     * only changes once the width is past the breakpoint by half the hysteresis, so a
+     * width wavering around the breakpoint does not flip it back and forth.
+     */
+    private void updateOrientationForWidth(int width) {
+        if (mOrientationBreakpoint <= 0) {
+            return;
+        }
+        int half = mOrientationHysteresis / 2;
+        int orientation = mOrientation;
+        if (mOrientation == ORIENTATION_VERTICAL && width >= mOrientationBreakpoint + half) {
+            orientation = ORIENTATION_HORIZONTAL;
+        } else if (mOrientation == ORIENTATION_HORIZONTAL && width < mOrientationBreakpoint - half) {
+            orientation = ORIENTATION_VERTICAL;
+        }
+        if (orientation != mOrientation) {
+            if (isWindowResizing) {
+                // Scaling the old measurement makes no sense across orientations
+                removeCallbacks(mResizeSettleRunnable);
+                isWindowResizing = false;
+            }
+            // Keep the splits where they were relative to the layout
+            keepSplitterFractions();
+            mOrientation = orientation;
+        }
+    }
+
+    /**
+     * Detects a continuous resize of the layout, such as dragging the divider of a
+     * split-screen or the edge of a freeform window. A single size change is measured
+     * as usual; a second within the settle time starts a resize, during which the
+     * splitters keep the fractions they had when it started and the panes keep their
+     * measurement. Each further change pushes the end of the resize back.
+     *
+     * @return whether the layout is being resized
+     */
+    private boolean trackWindowResize(int width, int height) {
+        if (mResizeSettleTime <= 0 || !isMeasured) {
+            mLastResizeWidth = width;
+            mLastResizeHeight = height;
+            return false;
+        }
+        if (width == mLastResizeWidth && height == mLastResizeHeight) {
+            return isWindowResizing;
+        }
+        mLastResizeWidth = width;
+        mLastResizeHeight = height;
+        long now = SystemClock.uptimeMillis();
+        boolean continuous = now - mLastResizeMillis < mResizeSettleTime;
+        mLastResizeMillis = now;
+        if (!isWindowResizing) {
+            if (!continuous || isDragging || mTransientSplitter != MultiSplitGeometry.NO_SPLITTER) {
+                return false;
+            }
+            int count = mGeometry.getSplitterCount();
+            if (mResizeFractions.length < count) {
+                mResizeFractions = new float[count];
+            }
+            for (int i = 0; i < count; i++) {
+                mResizeFractions[i] = MultiSplitGeometry.toFraction(mGeometry.getPosition(i), mGeometry.getLength());
+            }
+            isWindowResizing = true;
+        }
+        applyResizeFractions();
+        removeCallbacks(mResizeSettleRunnable);
+        postDelayed(mResizeSettleRunnable, mResizeSettleTime);
+        return true;
+    }
+
+    /**
+     * Puts every splitter back at the fraction it had when the resize started, so
+     * the split does not drift as the size changes step by step.
+     */
+    private void applyResizeFractions() {
+        int count = Math.min(mGeometry.getSplitterCount(), mResizeFractions.length);
+        for (int i = 0; i < count; i++) {
+            mGeometry.setPositionPercent(i, mResizeFractions[i]);
+        }
+    }
+
+    /**
+     * Ends a resize once the size has settled, measuring the panes once at the final size.
+     */
+    private void finishWindowResize() {
+        if (!isWindowResizing) {
+            return;
+        }
+        isWindowResizing = false;
+        applyResizeFractions();
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Checks whether the last pass measured the panes with the same inputs and no pane
+     * has asked to be measured again since, in which case every pane keeps its
+     * measurement. This is the common case when something outside this layout
+     * requests a layout.
+     */
+    private boolean isMeasureCacheValid(int widthMeasureSpec, int heightMeasureSpec, int childCount) {
+        if (widthMeasureSpec != mMeasuredWidthSpec || heightMeasureSpec != mMeasuredHeightSpec
+                || mOrientation != mMeasuredOrientation || mGeometry.getSplitterSize() != mMeasuredSplitterSize
+                || childCount != mMeasuredChildCount) {
+            return false;
+        }
+        int splitterCount = mGeometry.getSplitterCount();
+        if (mMeasuredPositions.length < splitterCount) {
+            return false;
+        }
+        for (int i = 0; i < splitterCount; i++) {
+            if (mGeometry.getPosition(i) != mMeasuredPositions[i]) {
+                return false;
+            }
+        }
+        for (int i = 0; i < childCount; i++) {
+            View child = getChildAt(i);
+            if (child != mMeasuredChildren[i] || child.isLayoutRequested()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void saveMeasureCache(int widthMeasureSpec, int heightMeasureSpec, int childCount) {
+        mMeasuredWidthSpec = widthMeasureSpec;
+        mMeasuredHeightSpec = heightMeasureSpec;
+        mMeasuredOrientation = mOrientation;
+        mMeasuredSplitterSize = mGeometry.getSplitterSize();
+        mMeasuredChildCount = childCount;
+        int splitterCount = mGeometry.getSplitterCount();
+        if (mMeasuredPositions.length < splitterCount) {
+            mMeasuredPositions = new int[splitterCount];
+        }
+        for (int i = 0; i < splitterCount; i++) {
+            mMeasuredPositions[i] = mGeometry.getPosition(i);
+        }
+    }
+
+    /**
+     * Measures only the panes whose size changed since they were last measured, or
+     * which asked to be measured again. While resizing, panes keep the size they were
+     * last measured at, so only the panes which asked are measured.
+     */
+    private void measurePanes(int measuredWidth, int measuredHeight, int childCount, boolean resizing) {
+        if (mChildWidthSpecs.length < childCount) {
+            mChildWidthSpecs = new int[childCount];
+            mChildHeightSpecs = new int[childCount];
+            mMeasuredChildren = Arrays.copyOf(mMeasuredChildren, childCount);
+        }
+        for (int i = childCount; i < mMeasuredChildren.length && mMeasuredChildren[i] != null; i++) {
+            mMeasuredChildren[i] = null;
+        }
+        for (int i = 0; i < childCount; i++) {
+            int widthSpec;
+            int heightSpec;
+            if (mOrientation == ORIENTATION_HORIZONTAL) {
+                widthSpec = MeasureSpec.makeMeasureSpec(mGeometry.getPaneSize(i), MeasureSpec.EXACTLY);
+                heightSpec = MeasureSpec.makeMeasureSpec(measuredHeight, MeasureSpec.EXACTLY);
+            } else {
+                widthSpec = MeasureSpec.makeMeasureSpec(measuredWidth, MeasureSpec.EXACTLY);
+                heightSpec = MeasureSpec.makeMeasureSpec(mGeometry.getPaneSize(i), MeasureSpec.EXACTLY);
+            }
+            if (resizing && mChildWidthSpecs[i] != 0) {
+                widthSpec = mChildWidthSpecs[i];
+                heightSpec = mChildHeightSpecs[i];
+            }
+            // Dragging one splitter only changes the specs of the two panes next to it
+            View child = getChildAt(i);
+            if (child.getVisibility() == GONE) {
+                // Counts as measured so a collapsed pane keeps the measure cache valid;
+                // clearing its specs makes sure it is measured once it is shown again
+                mChildWidthSpecs[i] = 0;
+                mChildHeightSpecs[i] = 0;
+                mMeasuredChildren[i] = child;
+                continue;
+            }
+            if (widthSpec != mChildWidthSpecs[i] || heightSpec != mChildHeightSpecs[i]
+                    || child != mMeasuredChildren[i] || child.isLayoutRequested()) {
+                child.measure(widthSpec, heightSpec);
+                mChildWidthSpecs[i] = widthSpec;
+                mChildHeightSpecs[i] = heightSpec;
+                mMeasuredChildren[i] = child;
+            }
+        }
     }
 
     @Override
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        if (mTracer != null) {
+            mTracer.beginSection(this, SplitPaneTracer.SECTION_LAYOUT);
+        }
+        long layoutStartNanos = isLiveResizing ? System.nanoTime() : 0;
         int w = r - l;
         int h = b - t;
-        switch (mOrientation) {
-            case ORIENTATION_HORIZONTAL: {
-                getChildAt(0).layout(0, 0, mSplitterPosition - (mSplitterSize / 2), h);
-                getChildAt(1).layout(mSplitterPosition + (mSplitterSize / 2), 0, r, h);
-                break;
+        int childCount = getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            View child = getChildAt(i);
+            if (child.getVisibility() == GONE) {
+                continue;
             }
-            case ORIENTATION_VERTICAL: {
-                getChildAt(0).layout(0, 0, w, mSplitterPosition - (mSplitterSize / 2));
-                getChildAt(1).layout(0, mSplitterPosition + (mSplitterSize / 2), w, h);
-                break;
+            if (isWindowResizing) {
+                // Keep the size the pane was measured at, it is scaled when drawn
+                int start = mGeometry.getPaneStart(i);
+                if (mOrientation == ORIENTATION_HORIZONTAL) {
+                    child.layout(start, 0, start + child.getMeasuredWidth(), child.getMeasuredHeight());
+                } else {
+                    child.layout(0, start, child.getMeasuredWidth(), start + child.getMeasuredHeight());
+                }
+                continue;
+            }
+            switch (mOrientation) {
+                case ORIENTATION_HORIZONTAL: {
+                    child.layout(mGeometry.getPaneStart(i), 0, mGeometry.getPaneEnd(i), h);
+                    break;
+                }
+                case ORIENTATION_VERTICAL: {
+                    child.layout(0, mGeometry.getPaneStart(i), w, mGeometry.getPaneEnd(i));
+                    break;
+                }
             }
         }
+        if (isLiveResizing) {
+            mRelayoutThrottle.onRelayoutFinished(mLiveMeasureNanos + System.nanoTime() - layoutStartNanos);
+            mLiveMeasureNanos = 0;
+        }
+        postPaneSizeUpdate();
+        if (mTracer != null) {
+            mTracer.endSection(this, SplitPaneTracer.SECTION_LAYOUT);
+        }
     }
 
     @Override
     public boolean onKeyDown(int keyCode, KeyEvent event) {
-        boolean remeasure = false;
-        int offset = mSplitterSize;
+        int offset = mGeometry.getSplitterSize();
         if (event.isShiftPressed()) {
             offset *= 5;
         }
+        int direction = 0;
         switch (mOrientation) {
             case ORIENTATION_HORIZONTAL:
                 if (keyCode == KeyEvent.KEYCODE_DPAD_LEFT) {
-                    mSplitterPosition = clamp(mSplitterPosition - offset, getMinSplitterPosition(), getMaxSplitterPosition());
-                    mSplitterPositionPercent = -1;
-                    remeasure = true;
+                    direction = -1;
                 } else if (keyCode == KeyEvent.KEYCODE_DPAD_RIGHT) {
-                    mSplitterPosition = clamp(mSplitterPosition + offset, getMinSplitterPosition(), getMaxSplitterPosition());
-                    mSplitterPositionPercent = -1;
-                    remeasure = true;
+                    direction = 1;
                 }
                 break;
             case ORIENTATION_VERTICAL:
                 if (keyCode == KeyEvent.KEYCODE_DPAD_UP) {
-                    mSplitterPosition = clamp(mSplitterPosition - offset, getMinSplitterPosition(), getMaxSplitterPosition());
-                    mSplitterPositionPercent = -1;
-                    remeasure = true;
+                    direction = -1;
                 } else if (keyCode == KeyEvent.KEYCODE_DPAD_DOWN) {
-                    mSplitterPosition = clamp(mSplitterPosition + offset, getMinSplitterPosition(), getMaxSplitterPosition());
-                    mSplitterPositionPercent = -1;
-                    remeasure = true;
+                    direction = 1;
                 }
                 break;
         }
-        if (remeasure) {
-            remeasure();
-            notifySplitterPositionChanged(true);
+        if (direction != 0) {
+            if (!isMeasured || isDragging) {
+                mGeometry.offsetPosition(mActiveSplitter, direction * offset);
+                mSplitterPositionExplicit = true;
+                remeasure();
+                notifySplitterPositionChanged(true);
+                dispatchPositionUpdate(mActiveSplitter, OnSplitterPositionUpdateListener.PHASE_END, true);
+                return true;
+            }
+            // Each repeat moves the target on, the splitter glides towards it and
+            // the panes are measured once the key is released and it comes to rest
+            int from = mAnimatingSplitter == mActiveSplitter ? mSplitterAnimation.getTo() : mGeometry.getPosition(mActiveSplitter);
+            int duration = event.getRepeatCount() > 0 ? KEY_REPEAT_DURATION : KEY_DURATION;
+            animateSplitter(mActiveSplitter, mGeometry.clampPosition(mActiveSplitter, from + direction * offset), duration, mKeyRepeatInterpolator, true);
             return true;
         }
         return super.onKeyDown(keyCode, event);
@@ -292,30 +898,136 @@ public class SplitPaneLayout extends ViewGroup {
     @Override
     public boolean onTouchEvent(MotionEvent event) {
         if (mSplitterMovable) {
-            int x = (int) event.getX();
-            int y = (int) event.getY();
-
-            switch (event.getAction()) {
-                case MotionEvent.ACTION_DOWN:
-                    handleTouchDown(x, y);
+            if (mVelocityTracker != null) {
+                mVelocityTracker.addMovement(event);
+            }
+            switch (event.getActionMasked()) {
+                case MotionEvent.ACTION_DOWN: {
+                    mActivePointerId = event.getPointerId(0);
+                    handleTouchDown(Math.round(event.getX()), Math.round(event.getY()));
+                    if (isDragging) {
+                        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                            // Deliver moves as they arrive rather than batched once per frame
+                            requestUnbufferedDispatch(event);
+                        }
+                        mDragPredictor.reset();
+                        addDragSample(event.getEventTime(), event.getX(), event.getY());
+                        if (mSplitterFlingEnabled) {
+                            // A drag which never saw its up or cancel leaves its tracker behind
+                            if (mVelocityTracker == null) {
+                                mVelocityTracker = VelocityTracker.obtain();
+                            } else {
+                                mVelocityTracker.clear();
+                            }
+                            mVelocityTracker.addMovement(event);
+                        }
+                    }
                     break;
-                case MotionEvent.ACTION_MOVE:
-                    handleTouchMove(x, y);
+                }
+                case MotionEvent.ACTION_MOVE: {
+                    int pointerIndex = event.findPointerIndex(mActivePointerId);
+                    if (pointerIndex < 0) {
+                        break;
+                    }
+                    boolean traced = mTracer != null && isDragging;
+                    if (traced) {
+                        mTracer.beginSection(this, SplitPaneTracer.SECTION_DRAG_FRAME);
+                    }
+                    if (isDragging) {
+                        // Samples batched since the last event only feed the prediction,
+                        // positions in between would never be drawn
+                        int historySize = event.getHistorySize();
+                        for (int h = 0; h < historySize; h++) {
+                            addDragSample(event.getHistoricalEventTime(h), event.getHistoricalX(pointerIndex, h), event.getHistoricalY(pointerIndex, h));
+                        }
+                        addDragSample(event.getEventTime(), event.getX(pointerIndex), event.getY(pointerIndex));
+                    }
+                    handleTouchMove(Math.round(event.getX(pointerIndex)), Math.round(event.getY(pointerIndex)));
+                    if (traced) {
+                        mTracer.endSection(this, SplitPaneTracer.SECTION_DRAG_FRAME);
+                    }
+                    break;
+                }
+                case MotionEvent.ACTION_POINTER_UP: {
+                    int pointerIndex = event.getActionIndex();
+                    if (event.getPointerId(pointerIndex) == mActivePointerId) {
+                        // Another finger takes over the drag from where it is
+                        int newIndex = pointerIndex == 0 ? 1 : 0;
+                        mActivePointerId = event.getPointerId(newIndex);
+                        lastTouchX = Math.round(event.getX(newIndex));
+                        lastTouchY = Math.round(event.getY(newIndex));
+                        mDragPredictor.reset();
+                    }
+                    break;
+                }
+                case MotionEvent.ACTION_UP: {
+                    int pointerIndex = Math.max(event.findPointerIndex(mActivePointerId), 0);
+                    handleTouchUp(Math.round(event.getX(pointerIndex)), Math.round(event.getY(pointerIndex)));
+                    if (mVelocityTracker != null) {
+                        mVelocityTracker.recycle();
+                        mVelocityTracker = null;
+                    }
+                    mActivePointerId = MotionEvent.INVALID_POINTER_ID;
                     break;
-                case MotionEvent.ACTION_UP:
-                    handleTouchUp(x, y);
+                }
+                case MotionEvent.ACTION_CANCEL: {
+                    int index = mDraggingSplitter;
+                    boolean dragging = isDragging;
+                    cancelDrag();
+                    if (dragging) {
+                        dispatchPositionUpdate(index, OnSplitterPositionUpdateListener.PHASE_END, true);
+                    }
+                    mActivePointerId = MotionEvent.INVALID_POINTER_ID;
                     break;
+                }
             }
             return true;
         }
         return false;
     }
 
+    private void addDragSample(long timeMillis, float x, float y) {
+        if (mSplitterPredictionTime > 0) {
+            mDragPredictor.addSample(timeMillis, mOrientation == ORIENTATION_HORIZONTAL ? x : y);
+        }
+    }
+
     private void handleTouchDown(int x, int y) {
-        if (mSplitterTouchBounds.contains(x, y)) {
+        if (mSplitterAnimation.isRunning()) {
+            finishSplitterAnimation();
+        }
+        if (isWindowResizing) {
+            removeCallbacks(mResizeSettleRunnable);
+            finishWindowResize();
+        }
+        int index = findSplitter(x, y);
+        if (index != MultiSplitGeometry.NO_SPLITTER) {
             performHapticFeedback(HapticFeedbackConstants.VIRTUAL_KEY);
             isDragging = true;
+            if (mTracer != null) {
+                mTracer.beginSection(this, SplitPaneTracer.SECTION_DRAG);
+            }
+            mDraggingSplitter = index;
+            mActiveSplitter = index;
+            getSplitterBounds(index, mSplitterBounds);
+            getSplitterTouchBounds(mSplitterBounds, mSplitterTouchBounds);
+            if (mSplitterResizeMode == RESIZE_MODE_LIVE) {
+                isLiveResizing = true;
+                mRelayoutThrottle.setRefreshRate(getDisplayRefreshRate());
+                mRelayoutThrottle.reset();
+            } else if (mSplitterResizeMode == RESIZE_MODE_PREVIEW) {
+                isPreviewResizing = true;
+            }
             mSplitterDraggingBounds.set(mSplitterBounds);
+            mDragPosition = mOrientation == ORIENTATION_HORIZONTAL ? mSplitterBounds.centerX() : mSplitterBounds.centerY();
+            mDragStartPosition = mGeometry.getPosition(index);
+            ensureSplitterDraggingDrawable();
+            if (mOrientation == ORIENTATION_HORIZONTAL) {
+                mDragDamage.reset(mSplitterDraggingBounds.left, mSplitterDraggingBounds.right);
+            } else {
+                mDragDamage.reset(mSplitterDraggingBounds.top, mSplitterDraggingBounds.bottom);
+            }
+            dispatchPositionUpdate(index, OnSplitterPositionUpdateListener.PHASE_START, true);
             invalidate(mSplitterDraggingBounds);
             lastTouchX = x;
             lastTouchY = y;
@@ -330,83 +1042,525 @@ public class SplitPaneLayout extends ViewGroup {
                     return;
                 } else {
                     isMovingSplitter = true;
+                    expandPaneForDrag(mDraggingSplitter);
                 }
             }
-            boolean take = true;
-            switch (mOrientation) {
-                case ORIENTATION_HORIZONTAL: {
-                    mSplitterDraggingBounds.offset(x - lastTouchX, 0);
-                    if (mSplitterDraggingBounds.centerX() < getMinSplitterPosition()) {
-                        take = false;
-                        mSplitterDraggingBounds.offset(getMinSplitterPosition() - mSplitterDraggingBounds.centerX(), 0);
-                    }
-                    if (mSplitterDraggingBounds.centerX() > getMaxSplitterPosition()) {
-                        take = false;
-                        mSplitterDraggingBounds.offset(getMaxSplitterPosition() - mSplitterDraggingBounds.centerX(), 0);
-                    }
-                    break;
-                }
-                case ORIENTATION_VERTICAL: {
-                    mSplitterDraggingBounds.offset(0, y - lastTouchY);
-                    if (mSplitterDraggingBounds.centerY() < getMinSplitterPosition()) {
-                        take = false;
-                        mSplitterDraggingBounds.offset(0, getMinSplitterPosition() - mSplitterDraggingBounds.centerY());
-                    }
-                    if (mSplitterDraggingBounds.centerY() > getMaxSplitterPosition()) {
-                        take = false;
-                        mSplitterDraggingBounds.offset(0, getMaxSplitterPosition() - mSplitterDraggingBounds.centerY());
-                    }
-                    break;
-                }
-            }
-            if (take) {
+            int delta = mOrientation == ORIENTATION_HORIZONTAL ? x - lastTouchX : y - lastTouchY;
+            int dragged = mGeometry.dragStep(mDraggingSplitter, mDragPosition, delta);
+            if (dragged == mDragPosition + delta) {
                 lastTouchX = x;
                 lastTouchY = y;
             }
-            invalidate();
+            mDragPosition = dragged;
+            int shown = dragged;
+            if (mSplitterPredictionTime > 0) {
+                // Draw the splitter where the finger is expected to be once the frame is on screen
+                float ahead = mDragPredictor.predict(mSplitterPredictionTime) - (mOrientation == ORIENTATION_HORIZONTAL ? x : y);
+                shown = mGeometry.clampPosition(mDraggingSplitter, dragged + Math.round(ahead));
+            }
+            if (mOrientation == ORIENTATION_HORIZONTAL) {
+                mSplitterDraggingBounds.offset(shown - mSplitterDraggingBounds.centerX(), 0);
+            } else {
+                mSplitterDraggingBounds.offset(0, shown - mSplitterDraggingBounds.centerY());
+            }
+            if (isLiveResizing) {
+                applyLiveResize();
+            } else if (isPreviewResizing) {
+                if (mPreviewSplitter == MultiSplitGeometry.NO_SPLITTER) {
+                    startPreview(mDraggingSplitter);
+                }
+                setTransientPosition(mDraggingSplitter, mOrientation == ORIENTATION_HORIZONTAL ? mSplitterDraggingBounds.centerX() : mSplitterDraggingBounds.centerY());
+            }
+            if (mOnSplitterPositionUpdateListener != null) {
+                postPositionUpdate(mDraggingSplitter, mOrientation == ORIENTATION_HORIZONTAL ? mSplitterDraggingBounds.centerX() : mSplitterDraggingBounds.centerY(), OnSplitterPositionUpdateListener.PHASE_MOVE);
+            }
+            if (isLiveResizing || isPreviewResizing) {
+                invalidate();
+            } else {
+                invalidateDragDamage();
+            }
         }
     }
 
-    private void handleTouchUp(int x, int y) {
-        if (isDragging) {
-            isDragging = false;
+    /**
+     * Invalidates only where the dragging overlay was and where it is now; the
+     * panes and the other splitters do not change while the overlay moves.
+     */
+    private void invalidateDragDamage() {
+        if (mOrientation == ORIENTATION_HORIZONTAL) {
+            if (mDragDamage.move(mSplitterDraggingBounds.left, mSplitterDraggingBounds.right)) {
+                mDirtyBounds.set(mDragDamage.getDirtyStart(), mSplitterDraggingBounds.top, mDragDamage.getDirtyEnd(), mSplitterDraggingBounds.bottom);
+                invalidate(mDirtyBounds);
+            }
+        } else {
+            if (mDragDamage.move(mSplitterDraggingBounds.top, mSplitterDraggingBounds.bottom)) {
+                mDirtyBounds.set(mSplitterDraggingBounds.left, mDragDamage.getDirtyStart(), mSplitterDraggingBounds.right, mDragDamage.getDirtyEnd());
+                invalidate(mDirtyBounds);
+            }
+        }
+    }
+
+    private void handleTouchUp(int x, int y) {
+        if (isDragging) {
+            cancelLiveResize();
+            isDragging = false;
             isMovingSplitter = false;
-            switch (mOrientation) {
-                case ORIENTATION_HORIZONTAL: {
-                    mSplitterPosition = clamp(x, getMinSplitterPosition(), getMaxSplitterPosition());
-                    mSplitterPositionPercent = -1;
-                    break;
+            isLiveResizing = false;
+            isPreviewResizing = false;
+            if (mTracer != null) {
+                mTracer.endSection(this, SplitPaneTracer.SECTION_DRAG);
+            }
+            int index = mDraggingSplitter;
+            mDraggingSplitter = MultiSplitGeometry.NO_SPLITTER;
+            int dragExpandedPane = mDragExpandedPane;
+            mDragExpandedPane = -1;
+            if (mPaneCollapseThreshold > 0) {
+                int pane = findCollapsingPane(index, mOrientation == ORIENTATION_HORIZONTAL ? x : y);
+                if (pane >= 0) {
+                    endPreview();
+                    if (pane == dragExpandedPane) {
+                        // Let go before it got large enough, it keeps the position it had before collapsing
+                        mGeometry.markPaneCollapsed(pane, true);
+                        applyPaneCollapsed(pane, true);
+                        remeasure();
+                    } else {
+                        setPaneCollapsed(pane, true, true);
+                    }
+                    return;
                 }
-                case ORIENTATION_VERTICAL: {
-                    mSplitterPosition = clamp(y, getMinSplitterPosition(), getMaxSplitterPosition());
-                    mSplitterPositionPercent = -1;
-                    break;
+            }
+            int position = mGeometry.clampPosition(index, mOrientation == ORIENTATION_HORIZONTAL ? x : y);
+            float velocity = getReleaseVelocity();
+            if (Math.abs(velocity) < ViewConfiguration.get(getContext()).getScaledMinimumFlingVelocity()) {
+                velocity = 0;
+            }
+            if (velocity != 0 || mSnapper.hasSnapPoints()) {
+                int target = mSnapper.findTarget(position, velocity, mGeometry.getMinPosition(index), mGeometry.getMaxPosition(index), mGeometry.getLength());
+                if (target != position) {
+                    // A preview hands its layers and transient position over to the animation
+                    startSplitterAnimation(index, position, target, velocity);
+                    invalidate();
+                    return;
                 }
             }
+            endPreview();
+            mGeometry.moveTo(index, position);
+            mSplitterPositionExplicit = true;
             remeasure();
             notifySplitterPositionChanged(true);
+            dispatchPositionUpdate(index, OnSplitterPositionUpdateListener.PHASE_END, true);
+        }
+    }
+
+    /**
+     * Drops the current drag without moving the splitter.
+     */
+    private void cancelDrag() {
+        cancelLiveResize();
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+        if (!isDragging) {
+            return;
+        }
+        if (mTracer != null) {
+            mTracer.endSection(this, SplitPaneTracer.SECTION_DRAG);
+        }
+        boolean liveResized = isLiveResizing && mGeometry.getPosition(mDraggingSplitter) != mDragStartPosition;
+        if (liveResized) {
+            // Live resizing already moved the splitter, put it back
+            mGeometry.moveTo(mDraggingSplitter, mDragStartPosition);
+            if (mSplitterGroup != null && mGeometry.getLength() > 0) {
+                mSplitterGroup.publish(this, mDraggingSplitter, MultiSplitGeometry.toFraction(mDragStartPosition, mGeometry.getLength()));
+            }
+        }
+        isDragging = false;
+        isMovingSplitter = false;
+        isLiveResizing = false;
+        isPreviewResizing = false;
+        mDraggingSplitter = MultiSplitGeometry.NO_SPLITTER;
+        if (liveResized && mDragExpandedPane < 0) {
+            requestLayout();
+        }
+        if (mDragExpandedPane >= 0) {
+            mGeometry.markPaneCollapsed(mDragExpandedPane, true);
+            applyPaneCollapsed(mDragExpandedPane, true);
+            mDragExpandedPane = -1;
+            remeasure();
+        }
+        mSplitterDraggingBounds.setEmpty();
+        mSplitterTouchBounds.setEmpty();
+        endPreview();
+        invalidate();
+    }
+
+    /**
+     * Finds the pane on either side of a released splitter which was dragged closer
+     * to its far edge than the collapse threshold.
+     */
+    private int findCollapsingPane(int index, int position) {
+        int before = position - (index == 0 ? 0 : mGeometry.getPosition(index - 1));
+        if (before < mPaneCollapseThreshold) {
+            return index;
+        }
+        int after = (index == mGeometry.getSplitterCount() - 1 ? mGeometry.getLength() : mGeometry.getPosition(index + 1)) - position;
+        if (after < mPaneCollapseThreshold) {
+            return index + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Pulls a collapsed pane next to the dragged splitter open, so it follows the
+     * splitter from where it was collapsed.
+     */
+    private void expandPaneForDrag(int index) {
+        int pane = mGeometry.isPaneCollapsed(index) ? index : mGeometry.isPaneCollapsed(index + 1) ? index + 1 : -1;
+        if (pane >= 0) {
+            mDragExpandedPane = pane;
+            mGeometry.markPaneCollapsed(pane, false);
+            applyPaneCollapsed(pane, false);
+        }
+    }
+
+    private float getReleaseVelocity() {
+        if (mVelocityTracker == null) {
+            return 0;
+        }
+        mVelocityTracker.computeCurrentVelocity(1000, ViewConfiguration.get(getContext()).getScaledMaximumFlingVelocity());
+        return mOrientation == ORIENTATION_HORIZONTAL ? mVelocityTracker.getXVelocity(mActivePointerId) : mVelocityTracker.getYVelocity(mActivePointerId);
+    }
+
+    /**
+     * Animates a splitter from where it was released to where it comes to rest.
+     * The panes keep their current measurement during the animation; they are
+     * clipped and translated by {@link #drawChild(Canvas, View, long)} and measured
+     * once when the animation finishes.
+     */
+    private void startSplitterAnimation(int index, int from, int to, float velocity) {
+        long duration = ANIMATION_DURATION;
+        if (velocity != 0) {
+            // A decelerate interpolator starts at twice the average speed, match it to the release
+            duration = Math.max(120, Math.min(400, (long) (2000f * Math.abs(to - from) / Math.abs(velocity))));
+        }
+        mAnimatingSplitter = index;
+        mAnimationInterpolator = mFlingInterpolator;
+        mAnimationFromUser = true;
+        mSplitterAnimation.start(from, to, System.nanoTime(), duration);
+        setTransientPosition(index, from);
+        Choreographer.getInstance().postFrameCallback(mAnimationFrameCallback);
+    }
+
+    /**
+     * Animates a splitter from where it is to a position. A running animation of the
+     * same splitter is retargeted from wherever it is drawn now, one of another
+     * splitter is finished first.
+     */
+    private void animateSplitter(int index, int to, long duration, TimeInterpolator interpolator, boolean fromUser) {
+        int from;
+        boolean retarget = mAnimatingSplitter == index && mSplitterAnimation.isRunning();
+        if (retarget) {
+            from = mTransientPosition;
+        } else {
+            finishSplitterAnimation();
+            from = mGeometry.getPosition(index);
+            if (from == to) {
+                return;
+            }
+        }
+        mAnimatingSplitter = index;
+        mAnimationInterpolator = interpolator;
+        mAnimationFromUser = fromUser;
+        mSplitterAnimation.start(from, to, System.nanoTime(), duration);
+        if (!retarget) {
+            setTransientPosition(index, from);
+            dispatchPositionUpdate(index, OnSplitterPositionUpdateListener.PHASE_START, fromUser);
+            Choreographer.getInstance().postFrameCallback(mAnimationFrameCallback);
+        }
+    }
+
+    /**
+     * Stops a running splitter animation where it is, without moving the splitter
+     * or notifying listeners.
+     */
+    private void stopSplitterAnimation() {
+        if (mSplitterAnimation.isRunning()) {
+            Choreographer.getInstance().removeFrameCallback(mAnimationFrameCallback);
+            mSplitterAnimation.stop();
+            mAnimatingSplitter = MultiSplitGeometry.NO_SPLITTER;
+            endPreview();
+            clearTransientPosition();
+        }
+    }
+
+    private void onAnimationFrame(long frameTimeNanos) {
+        if (!mSplitterAnimation.isRunning()) {
+            return;
+        }
+        float progress = mSplitterAnimation.getProgress(frameTimeNanos);
+        setTransientPosition(mAnimatingSplitter, mSplitterAnimation.getPosition(mAnimationInterpolator.getInterpolation(progress)));
+        if (mOnSplitterPositionUpdateListener != null && progress < 1f) {
+            // Already running once per frame, deliver right away
+            deliverPositionUpdate(mAnimatingSplitter, mTransientPosition, mAnimationFromUser, OnSplitterPositionUpdateListener.PHASE_SETTLE);
+        }
+        if (progress >= 1f) {
+            finishSplitterAnimation();
+        } else {
+            Choreographer.getInstance().postFrameCallback(mAnimationFrameCallback);
+        }
+    }
+
+    /**
+     * Jumps a running splitter animation to its end and measures the panes once.
+     */
+    private void finishSplitterAnimation() {
+        if (!mSplitterAnimation.isRunning()) {
+            return;
+        }
+        Choreographer.getInstance().removeFrameCallback(mAnimationFrameCallback);
+        mSplitterAnimation.stop();
+        int index = mAnimatingSplitter;
+        mAnimatingSplitter = MultiSplitGeometry.NO_SPLITTER;
+        endPreview();
+        clearTransientPosition();
+        mGeometry.moveTo(index, mSplitterAnimation.getTo());
+        mSplitterPositionExplicit = true;
+        remeasure();
+        notifySplitterPositionChanged(mAnimationFromUser);
+        dispatchPositionUpdate(index, OnSplitterPositionUpdateListener.PHASE_END, mAnimationFromUser);
+    }
+
+    /**
+     * Promotes the panes next to a dragged splitter to hardware layers, so moving
+     * the splitter only composites them. Without hardware acceleration the panes
+     * are drawn as they are; a software layer would cost more than it saves.
+     */
+    private void startPreview(int index) {
+        mPreviewSplitter = index;
+        if (!isHardwareAccelerated()) {
+            return;
+        }
+        for (int i = 0; i < 2; i++) {
+            View child = getChildAt(index + i);
+            mPreviewLayerTypes[i] = child.getLayerType();
+            if (mPreviewLayerTypes[i] != LAYER_TYPE_HARDWARE) {
+                child.setLayerType(LAYER_TYPE_HARDWARE, null);
+                child.buildLayer();
+            }
+        }
+    }
+
+    /**
+     * Restores the layer types of the previewed panes and drops the transient position.
+     */
+    private void endPreview() {
+        int index = mPreviewSplitter;
+        if (index == MultiSplitGeometry.NO_SPLITTER) {
+            return;
+        }
+        mPreviewSplitter = MultiSplitGeometry.NO_SPLITTER;
+        if (isHardwareAccelerated() && index + 1 < getChildCount()) {
+            for (int i = 0; i < 2; i++) {
+                View child = getChildAt(index + i);
+                if (child.getLayerType() != mPreviewLayerTypes[i]) {
+                    child.setLayerType(mPreviewLayerTypes[i], null);
+                }
+            }
+        }
+        clearTransientPosition();
+    }
+
+    private void setTransientPosition(int index, int position) {
+        mTransientSplitter = index;
+        mTransientPosition = position;
+        invalidate();
+        postPaneSizeUpdate();
+    }
+
+    private void clearTransientPosition() {
+        if (mTransientSplitter != MultiSplitGeometry.NO_SPLITTER) {
+            mTransientSplitter = MultiSplitGeometry.NO_SPLITTER;
+            invalidate();
+            postPaneSizeUpdate();
+        }
+    }
+
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        if (isWindowResizing) {
+            return drawResizingChild(canvas, child, drawingTime);
+        }
+        int index = mTransientSplitter;
+        if (index == MultiSplitGeometry.NO_SPLITTER) {
+            return super.drawChild(canvas, child, drawingTime);
+        }
+        int half = mGeometry.getSplitterSize() / 2;
+        int delta = mTransientPosition - mGeometry.getPosition(index);
+        boolean before = child == getChildAt(index);
+        boolean after = child == getChildAt(index + 1);
+        if (!before && !after) {
+            return super.drawChild(canvas, child, drawingTime);
+        }
+        int saveCount = canvas.save();
+        if (mOrientation == ORIENTATION_HORIZONTAL) {
+            if (before) {
+                canvas.clipRect(child.getLeft(), child.getTop(), mTransientPosition - half, child.getBottom());
+            } else {
+                canvas.clipRect(mTransientPosition + half, child.getTop(), child.getRight(), child.getBottom());
+                canvas.translate(delta, 0);
+            }
+        } else {
+            if (before) {
+                canvas.clipRect(child.getLeft(), child.getTop(), child.getRight(), mTransientPosition - half);
+            } else {
+                canvas.clipRect(child.getLeft(), mTransientPosition + half, child.getRight(), child.getBottom());
+                canvas.translate(0, delta);
+            }
         }
+        boolean result = super.drawChild(canvas, child, drawingTime);
+        canvas.restoreToCount(saveCount);
+        return result;
     }
 
-    private int getMinSplitterPosition() {
-        return mPaneSizeMin;
+    /**
+     * Draws a pane laid out at its old measurement scaled to the size of its pane.
+     */
+    private boolean drawResizingChild(Canvas canvas, View child, long drawingTime) {
+        int index = indexOfChild(child);
+        int width = child.getWidth();
+        int height = child.getHeight();
+        if (index < 0 || width <= 0 || height <= 0) {
+            return super.drawChild(canvas, child, drawingTime);
+        }
+        int paneSize = mGeometry.getPaneEnd(index) - mGeometry.getPaneStart(index);
+        float scaleX;
+        float scaleY;
+        if (mOrientation == ORIENTATION_HORIZONTAL) {
+            scaleX = (float) paneSize / width;
+            scaleY = (float) getHeight() / height;
+        } else {
+            scaleX = (float) getWidth() / width;
+            scaleY = (float) paneSize / height;
+        }
+        int saveCount = canvas.save();
+        canvas.translate(child.getLeft(), child.getTop());
+        canvas.scale(scaleX, scaleY);
+        canvas.translate(-child.getLeft(), -child.getTop());
+        boolean result = super.drawChild(canvas, child, drawingTime);
+        canvas.restoreToCount(saveCount);
+        return result;
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        if (mPaneSizeUpdatePending) {
+            mPaneSizeUpdatePending = false;
+            Choreographer.getInstance().removeFrameCallback(mPaneSizeFrameCallback);
+        }
+        if (isWindowResizing) {
+            removeCallbacks(mResizeSettleRunnable);
+            isWindowResizing = false;
+        }
+        cancelLiveResize();
+        finishSplitterAnimation();
+        endPreview();
+        if (mPositionUpdatePending) {
+            mPositionUpdatePending = false;
+            Choreographer.getInstance().removeFrameCallback(mPositionUpdateFrameCallback);
+        }
+        super.onDetachedFromWindow();
+    }
+
+    /**
+     * Finds the splitter whose touch area contains a point.
+     *
+     * @return the index of the splitter, or {@link MultiSplitGeometry#NO_SPLITTER}
+     */
+    private int findSplitter(int x, int y) {
+        if (x < 0 || y < 0 || x >= getMeasuredWidth() || y >= getMeasuredHeight()) {
+            return MultiSplitGeometry.NO_SPLITTER;
+        }
+        switch (mOrientation) {
+            case ORIENTATION_HORIZONTAL:
+                return mGeometry.findSplitter(x, mSplitterTouchSlop);
+            case ORIENTATION_VERTICAL:
+                return mGeometry.findSplitter(y, mSplitterTouchSlop / 2);
+        }
+        return MultiSplitGeometry.NO_SPLITTER;
     }
 
-    private int getMaxSplitterPosition() {
+    /**
+     * Extends the bounds of a splitter by the touch slop along the split axis.
+     */
+    private void getSplitterTouchBounds(Rect splitterBounds, Rect touchBounds) {
         switch (mOrientation) {
             case ORIENTATION_HORIZONTAL:
-                return getMeasuredWidth() - mPaneSizeMin;
+                touchBounds.set(splitterBounds.left - mSplitterTouchSlop, splitterBounds.top, splitterBounds.right + mSplitterTouchSlop, splitterBounds.bottom);
+                break;
             case ORIENTATION_VERTICAL:
-                return getMeasuredHeight() - mPaneSizeMin;
+                touchBounds.set(splitterBounds.left, splitterBounds.top - mSplitterTouchSlop / 2, splitterBounds.right, splitterBounds.bottom + mSplitterTouchSlop / 2);
+                break;
+        }
+    }
+
+    /**
+     * Moves the panes to the dragged splitter position, if the relayout throttle
+     * allows it for this frame.
+     */
+    private void applyLiveResize() {
+        mLiveResizePosition = mOrientation == ORIENTATION_HORIZONTAL ? mSplitterDraggingBounds.centerX() : mSplitterDraggingBounds.centerY();
+        applyPendingLiveResize();
+    }
+
+    private void applyPendingLiveResize() {
+        int position = mLiveResizePosition;
+        if (position == mGeometry.getPosition(mDraggingSplitter)) {
+            return;
         }
-        return 0;
+        long now = System.nanoTime();
+        if (mRelayoutThrottle.canRelayout(now)) {
+            mRelayoutThrottle.onRelayoutStarted(now);
+            mGeometry.moveTo(mDraggingSplitter, position);
+            requestLayout();
+            if (mSplitterGroup != null && mGeometry.getLength() > 0) {
+                // The group follows in the same traversal
+                mSplitterGroup.publish(this, mDraggingSplitter, MultiSplitGeometry.toFraction(position, mGeometry.getLength()));
+            }
+        } else if (!mRelayoutThrottle.isFallback() && !mLiveResizePending) {
+            // The finger may stop on a throttled move, catch up on a later frame
+            mLiveResizePending = true;
+            Choreographer.getInstance().postFrameCallback(mLiveResizeFrameCallback);
+        }
+    }
+
+    private void cancelLiveResize() {
+        if (mLiveResizePending) {
+            mLiveResizePending = false;
+            Choreographer.getInstance().removeFrameCallback(mLiveResizeFrameCallback);
+        }
+    }
+
+    private float getDisplayRefreshRate() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            Display display = getDisplay();
+            if (display != null) {
+                return display.getRefreshRate();
+            }
+        }
+        return 60f;
     }
 
     @Override
     public Parcelable onSaveInstanceState() {
         Parcelable superState = super.onSaveInstanceState();
         SavedState ss = new SavedState(superState);
-        ss.mSplitterPositionPercent = mSplitterPositionPercent;
+        ss.mSplitterPositionPercents = getSplitterPositionPercents();
+        int count = mGeometry.getSplitterCount();
+        ss.mPanesCollapsed = new boolean[count + 1];
+        for (int i = 0; i <= count; i++) {
+            ss.mPanesCollapsed[i] = mGeometry.isPaneCollapsed(i);
+        }
         return ss;
     }
 
@@ -418,285 +1572,1502 @@ public class SplitPaneLayout extends ViewGroup {
         }
         SavedState ss = (SavedState) state;
         super.onRestoreInstanceState(ss.getSuperState());
-        setSplitterPositionPercent(ss.mSplitterPositionPercent);
+        applySplitterPositionPercents(ss.mSplitterPositionPercents, ss.mPanesCollapsed);
+    }
+
+    /**
+     * Gets the fraction of every splitter, using the position a collapsed pane
+     * expands to for the splitter next to it.
+     */
+    private float[] getSplitterPositionPercents() {
+        int count = mGeometry.getSplitterCount();
+        float[] percents = new float[count];
+        for (int i = 0; i < count; i++) {
+            percents[i] = mGeometry.getPositionPercent(i);
+        }
+        for (int i = 0; i <= count; i++) {
+            if (mGeometry.isPaneCollapsed(i)) {
+                percents[mGeometry.getCollapsingSplitter(i)] = mGeometry.getPaneExpandedPercent(i);
+            }
+        }
+        return percents;
+    }
+
+    /**
+     * Applies saved splitter fractions and collapsed panes. Before the first
+     * measure the values are only recorded, as that measure is coming anyway;
+     * afterwards they are applied as a single batch.
+     */
+    private void applySplitterPositionPercents(float[] percents, boolean[] collapsed) {
+        syncSplitterCount();
+        int count = Math.min(percents.length, mGeometry.getSplitterCount());
+        if (!isMeasured) {
+            for (int i = 0; i < count; i++) {
+                if (percents[i] >= 0) {
+                    mGeometry.setPositionPercent(i, percents[i]);
+                }
+            }
+            mSplitterPositionExplicit = true;
+            for (int i = 0; collapsed != null && i <= count && i < collapsed.length; i++) {
+                if (collapsed[i] && !mGeometry.isPaneCollapsed(i)) {
+                    mGeometry.setPaneCollapsed(i, true);
+                    applyPaneCollapsed(i, true);
+                }
+            }
+            return;
+        }
+        beginUpdate();
+        for (int i = 0; i < count; i++) {
+            if (percents[i] >= 0) {
+                setSplitterPositionPercent(i, percents[i]);
+            }
+        }
+        for (int i = 0; collapsed != null && i <= count && i < collapsed.length; i++) {
+            if (collapsed[i]) {
+                setPaneCollapsed(i, true);
+            }
+        }
+        endUpdate();
+    }
+
+    /**
+     * Gets the key this layout's positions are kept under in the position store,
+     * derived from its id.
+     */
+    private String getPositionStoreKey() {
+        int id = getId();
+        if (id == NO_ID) {
+            return null;
+        }
+        try {
+            // Entry names survive resource ids being renumbered between builds
+            return getResources().getResourceEntryName(id);
+        } catch (Resources.NotFoundException e) {
+            return String.valueOf(id);
+        }
+    }
+
+    /**
+     * Resolves the splitter position right away and schedules the panes to be
+     * measured and laid out with the next frame's traversal, so any number of
+     * calls within a frame cost a single measure/layout pass. Inside a
+     * {@link #beginUpdate()}/{@link #endUpdate()} block positions are still
+     * resolved, so getters and later setters see them, but the layout is only
+     * scheduled once the outermost block ends.
+     */
+    private void remeasure() {
+        computeSplitterPosition();
+        if (mUpdateDepth > 0) {
+            mRemeasurePending = true;
+            return;
+        }
+        if (mTracer != null) {
+            mTracer.onRemeasureRequested(this);
+        }
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Starts a batch of changes. Until the matching {@link #endUpdate()}, setters
+     * only record their values; the layout is remeasured and listeners are
+     * notified once when the outermost batch ends. Batches may be nested.
+     */
+    public void beginUpdate() {
+        mUpdateDepth++;
+    }
+
+    /**
+     * Ends a batch of changes started with {@link #beginUpdate()}.
+     *
+     * @throws IllegalStateException if there is no matching {@link #beginUpdate()}
+     */
+    public void endUpdate() {
+        if (mUpdateDepth == 0) {
+            throw new IllegalStateException("endUpdate() called without a matching beginUpdate().");
+        }
+        mUpdateDepth--;
+        if (mUpdateDepth == 0) {
+            if (mRemeasurePending) {
+                mRemeasurePending = false;
+                remeasure();
+            }
+            if (mNotifyPending) {
+                boolean fromUser = mNotifyPendingFromUser;
+                mNotifyPending = false;
+                mNotifyPendingFromUser = false;
+                notifySplitterPositionChanged(fromUser);
+            }
+        }
+    }
+
+    /**
+     * Checks that we have at least two children.
+     */
+    private void check() {
+        if (getChildCount() < 2) {
+            throw new RuntimeException("SplitPaneLayout must have at least two child views.");
+        }
+    }
+
+    /**
+     * Checks that a splitter exists, syncing the splitter count with the children first.
+     */
+    private void checkSplitterIndex(int index) {
+        syncSplitterCount();
+        if (index < 0 || index >= mGeometry.getSplitterCount()) {
+            throw new IndexOutOfBoundsException("Invalid splitter index " + index + ", count is " + mGeometry.getSplitterCount());
+        }
+    }
+
+    private void checkPaneIndex(int pane) {
+        syncSplitterCount();
+        if (pane < 0 || pane >= mGeometry.getPaneCount()) {
+            throw new IndexOutOfBoundsException("Invalid pane index " + pane + ", count is " + mGeometry.getPaneCount());
+        }
+    }
+
+    /**
+     * Hides the view of a collapsed pane, or swaps it for a placeholder when a
+     * {@link PaneFactory} is set, so it costs nothing to measure, lay out or draw.
+     */
+    private void applyPaneCollapsed(int pane, boolean collapsed) {
+        if (pane >= getChildCount()) {
+            return;
+        }
+        View child = getChildAt(pane);
+        if (collapsed) {
+            if (mPaneFactory != null && !(child instanceof PanePlaceholder)) {
+                // The placeholder holds on to the layout params, and with them the
+                // weight and size constraints of the pane, until the pane is recreated
+                removeViewAt(pane);
+                addView(new PanePlaceholder(getContext()), pane, child.getLayoutParams());
+                mPaneFactory.onReleasePane(this, pane, child);
+            } else {
+                child.setVisibility(GONE);
+            }
+        } else {
+            if (child instanceof PanePlaceholder) {
+                if (mPaneFactory != null) {
+                    removeViewAt(pane);
+                    addView(mPaneFactory.onCreatePane(this, pane), pane, child.getLayoutParams());
+                }
+            } else {
+                child.setVisibility(VISIBLE);
+            }
+        }
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        if (mTracer != null) {
+            mTracer.beginSection(this, SplitPaneTracer.SECTION_DRAW);
+        }
+        super.dispatchDraw(canvas);
+        if (mSplitterDrawable != null) {
+            int count = mGeometry.getSplitterCount();
+            for (int i = 0; i < count; i++) {
+                getSplitterBounds(i, mSplitterBounds);
+                if (i == mTransientSplitter) {
+                    int delta = mTransientPosition - mGeometry.getPosition(i);
+                    mSplitterBounds.offset(mOrientation == ORIENTATION_HORIZONTAL ? delta : 0, mOrientation == ORIENTATION_VERTICAL ? delta : 0);
+                }
+                setDrawableBounds(mSplitterDrawable, mSplitterBounds);
+                mSplitterDrawable.draw(canvas);
+            }
+        }
+        if (isDragging && mSplitterDraggingDrawable != null && (!isLiveResizing || mRelayoutThrottle.isFallback())) {
+            setDrawableBounds(mSplitterDraggingDrawable, mSplitterDraggingBounds);
+            mSplitterDraggingDrawable.draw(canvas);
+        }
+        if (mTracer != null) {
+            mTracer.endSection(this, SplitPaneTracer.SECTION_DRAW);
+        }
+    }
+
+    /**
+     * Creates the dragging drawable the first time a drag shows it.
+     */
+    private void ensureSplitterDraggingDrawable() {
+        if (mSplitterDraggingDrawable != null) {
+            return;
+        }
+        if (mSplitterDraggingDrawableRes != 0) {
+            mSplitterDraggingDrawable = SplitterResources.newDrawable(getContext(), mSplitterDraggingDrawableRes);
+        } else {
+            mSplitterDraggingDrawable = SplitterResources.newColorDrawable(mSplitterDraggingColor);
+        }
+        if (mSplitterDraggingDrawable != null && mSplitterDraggingDrawable.isStateful()) {
+            mSplitterDraggingDrawable.setState(getDrawableState());
+        }
+    }
+
+    private static void setDrawableBounds(Drawable drawable, Rect bounds) {
+        if (!drawable.getBounds().equals(bounds)) {
+            drawable.setBounds(bounds);
+        }
+    }
+
+    @Override
+    protected void drawableStateChanged() {
+        super.drawableStateChanged();
+        updateSplitterDrawableState();
+    }
+
+    /**
+     * Applies the layout's drawable state to the splitter drawables. Called when the
+     * state changes rather than on every draw.
+     */
+    private void updateSplitterDrawableState() {
+        int[] state = getDrawableState();
+        boolean changed = false;
+        if (mSplitterDrawable != null && mSplitterDrawable.isStateful()) {
+            changed |= mSplitterDrawable.setState(state);
+        }
+        if (mSplitterDraggingDrawable != null && mSplitterDraggingDrawable.isStateful()) {
+            changed |= mSplitterDraggingDrawable.setState(state);
+        }
+        if (changed) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Gets the current drawable used for the splitter.
+     *
+     * @return the drawable used for the splitter
+     */
+    public Drawable getSplitterDrawable() {
+        return mSplitterDrawable;
+    }
+
+    /**
+     * Sets the drawable used for the splitter.
+     *
+     * @param splitterDrawable the desired orientation of the layout
+     */
+    public void setSplitterDrawable(Drawable splitterDrawable) {
+        mSplitterDrawable = splitterDrawable;
+        updateSplitterDrawableState();
+        if (getChildCount() >= 2) {
+            remeasure();
+        }
+    }
+
+    /**
+     * Gets the current drawable used for the splitter dragging overlay.
+     *
+     * @return the drawable used for the splitter
+     */
+    public Drawable getSplitterDraggingDrawable() {
+        ensureSplitterDraggingDrawable();
+        return mSplitterDraggingDrawable;
+    }
+
+    /**
+     * Sets the drawable used for the splitter dragging overlay.
+     *
+     * @param splitterDraggingDrawable the drawable to use while dragging the splitter
+     */
+    public void setSplitterDraggingDrawable(Drawable splitterDraggingDrawable) {
+        mSplitterDraggingDrawable = splitterDraggingDrawable;
+        updateSplitterDrawableState();
+        if (isDragging) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Gets the current orientation of the layout.
+     *
+     * @return the orientation of the layout
+     */
+    public int getOrientation() {
+        return mOrientation;
+    }
+
+    /**
+     * Sets the orientation of the layout.
+     *
+     * @param orientation the desired orientation of the layout
+     */
+    public void setOrientation(int orientation) {
+        if (mOrientation != orientation) {
+            keepSplitterFractions();
+            mOrientation = orientation;
+            if (getChildCount() >= 2) {
+                // The next measure resolves the positions along the new axis
+                requestLayout();
+                invalidate();
+            }
+        }
+    }
+
+    /**
+     * Makes every resolved splitter follow its fraction again, so its position is
+     * derived from the new length on the next measure.
+     */
+    private void keepSplitterFractions() {
+        int count = mGeometry.getSplitterCount();
+        for (int i = 0; i < count; i++) {
+            float percent = mGeometry.getPositionPercent(i);
+            if (percent >= 0) {
+                mGeometry.setPositionPercent(i, percent);
+            }
+        }
+    }
+
+    /**
+     * Swaps the first two panes. See {@link #swapPanes(int, int)}.
+     */
+    public void swapPanes() {
+        swapPanes(0, 1);
+    }
+
+    /**
+     * Swaps two panes without detaching their views from the window, so they keep
+     * their state, hardware layers and measurement. The panes trade places along with
+     * their sizes, so each keeps the size it had and is not measured again; panes in
+     * between shift without changing size. Swapping costs a single layout pass.
+     *
+     * @param first  the index of one pane
+     * @param second the index of the other pane
+     */
+    public void swapPanes(int first, int second) {
+        checkPaneIndex(first);
+        checkPaneIndex(second);
+        if (first == second) {
+            return;
+        }
+        if (first > second) {
+            int t = first;
+            first = second;
+            second = t;
+        }
+        cancelDrag();
+        finishSplitterAnimation();
+        View firstView = getChildAt(first);
+        View secondView = getChildAt(second);
+        // Detaching from the parent only, unlike removeView the views stay attached to the window
+        detachViewFromParent(second);
+        detachViewFromParent(first);
+        attachViewToParent(secondView, first, secondView.getLayoutParams());
+        attachViewToParent(firstView, second, firstView.getLayoutParams());
+        mGeometry.swapPanes(first, second);
+        if (second < mMeasuredChildren.length) {
+            swapMeasureCache(first, second);
+        }
+        mSplitterPositionExplicit = true;
+        requestLayout();
+        invalidate();
+        notifySplitterPositionChanged(false);
+    }
+
+    private void swapMeasureCache(int first, int second) {
+        View child = mMeasuredChildren[first];
+        mMeasuredChildren[first] = mMeasuredChildren[second];
+        mMeasuredChildren[second] = child;
+        int spec = mChildWidthSpecs[first];
+        mChildWidthSpecs[first] = mChildWidthSpecs[second];
+        mChildWidthSpecs[second] = spec;
+        spec = mChildHeightSpecs[first];
+        mChildHeightSpecs[first] = mChildHeightSpecs[second];
+        mChildHeightSpecs[second] = spec;
+    }
+
+    /**
+     * Gets the width at which the layout switches between orientations.
+     *
+     * @return the width at which the orientation switches, in pixels, 0 if the orientation is fixed
+     */
+    public int getOrientationBreakpoint() {
+        return mOrientationBreakpoint;
+    }
+
+    /**
+     * Sets the width at which the layout switches between orientations: horizontal
+     * at or above it, vertical below it. While set, it overrides
+     * {@link #setOrientation(int)} on every measure.
+     *
+     * @param orientationBreakpoint the width at which the orientation switches, in pixels, 0 to keep the orientation fixed
+     */
+    public void setOrientationBreakpoint(int orientationBreakpoint) {
+        mOrientationBreakpoint = Math.max(orientationBreakpoint, 0);
+        requestLayout();
+    }
+
+    /**
+     * Gets how far past the orientation breakpoint the width has to move before the orientation switches.
+     *
+     * @return the hysteresis around the breakpoint, in pixels
+     */
+    public int getOrientationHysteresis() {
+        return mOrientationHysteresis;
+    }
+
+    /**
+     * Sets how far past the orientation breakpoint the width has to move before the
+     * orientation switches. The orientation switches to horizontal at the breakpoint
+     * plus half of this and back to vertical below the breakpoint minus half of this.
+     *
+     * @param orientationHysteresis the hysteresis around the breakpoint, in pixels
+     */
+    public void setOrientationHysteresis(int orientationHysteresis) {
+        mOrientationHysteresis = Math.max(orientationHysteresis, 0);
+    }
+
+    /**
+     * Gets how long the size has to stay the same before a continuous resize ends.
+     *
+     * @return the settle time, in milliseconds, 0 if resizes are not detected
+     */
+    public int getResizeSettleTime() {
+        return mResizeSettleTime;
+    }
+
+    /**
+     * Sets how long the size has to stay the same before a continuous resize ends. A
+     * size change arriving within this time of the previous one starts a resize, such
+     * as when the window is resized in split-screen or freeform mode. During the resize
+     * the splitters keep their fractions, and the panes keep their measurement and are
+     * scaled to their new size; a pane which asks to be measured again is measured at
+     * the size it has. They are measured once when the size settles.
+     *
+     * @param resizeSettleTime the settle time, in milliseconds, 0 to measure every size change
+     */
+    public void setResizeSettleTime(int resizeSettleTime) {
+        mResizeSettleTime = Math.max(resizeSettleTime, 0);
+        if (mResizeSettleTime == 0 && isWindowResizing) {
+            removeCallbacks(mResizeSettleRunnable);
+            finishWindowResize();
+        }
+    }
+
+    /**
+     * Gets the current size of the splitter in pixels.
+     *
+     * @return the size of the splitter
+     */
+    public int getSplitterSize() {
+        return mGeometry.getSplitterSize();
+    }
+
+    /**
+     * Sets the current size of the splitter in pixels.
+     *
+     * @param splitterSize the desired size of the splitter
+     */
+    public void setSplitterSize(int splitterSize) {
+        mGeometry.setSplitterSize(splitterSize);
+        if (getChildCount() >= 2) {
+            remeasure();
+        }
+    }
+
+    /**
+     * Gets whether the splitter is movable by the user.
+     *
+     * @return whether the splitter is movable
+     */
+    public boolean isSplitterMovable() {
+        return mSplitterMovable;
+    }
+
+    /**
+     * Sets whether the splitter is movable by the user.
+     *
+     * @param splitterMovable whether the splitter is movable
+     */
+    public void setSplitterMovable(boolean splitterMovable) {
+        mSplitterMovable = splitterMovable;
+    }
+
+    /**
+     * Gets how the panes respond while the splitter is dragged.
+     *
+     * @return the resize mode, {@link #RESIZE_MODE_OVERLAY}, {@link #RESIZE_MODE_LIVE} or {@link #RESIZE_MODE_PREVIEW}
+     */
+    public int getSplitterResizeMode() {
+        return mSplitterResizeMode;
+    }
+
+    /**
+     * Sets how the panes respond while the splitter is dragged. Takes effect on the
+     * next drag.
+     *
+     * @param splitterResizeMode the resize mode, {@link #RESIZE_MODE_OVERLAY}, {@link #RESIZE_MODE_LIVE} or {@link #RESIZE_MODE_PREVIEW}
+     */
+    public void setSplitterResizeMode(int splitterResizeMode) {
+        mSplitterResizeMode = splitterResizeMode;
+    }
+
+    /**
+     * Gets the number of splitters, which is one less than the number of children.
+     *
+     * @return the number of splitters
+     */
+    public int getSplitterCount() {
+        return Math.max(0, getChildCount() - 1);
+    }
+
+    /**
+     * Gets whether a released splitter keeps moving with the velocity of the fling.
+     *
+     * @return whether flinging the splitter is enabled
+     */
+    public boolean isSplitterFlingEnabled() {
+        return mSplitterFlingEnabled;
+    }
+
+    /**
+     * Sets whether a released splitter keeps moving with the velocity of the fling.
+     *
+     * @param splitterFlingEnabled whether flinging the splitter is enabled
+     */
+    public void setSplitterFlingEnabled(boolean splitterFlingEnabled) {
+        mSplitterFlingEnabled = splitterFlingEnabled;
+    }
+
+    /**
+     * Gets how far ahead a dragged splitter is drawn of the last touch position, in milliseconds.
+     *
+     * @return how far ahead a dragged splitter is drawn, in milliseconds, 0 if prediction is disabled
+     */
+    public int getSplitterPredictionTime() {
+        return mSplitterPredictionTime;
+    }
+
+    /**
+     * Sets how far ahead a dragged splitter is drawn of the last touch position, in milliseconds.
+     * The position is extrapolated from the recent touch samples, so the splitter keeps up with
+     * the finger rather than trailing it by the input and display latency. A value around one
+     * or two frames works well; values above {@link DragPredictor#HORIZON_MAX_MILLIS} are capped.
+     *
+     * @param splitterPredictionTime how far ahead to draw a dragged splitter, in milliseconds, 0 to disable
+     */
+    public void setSplitterPredictionTime(int splitterPredictionTime) {
+        mSplitterPredictionTime = Math.max(splitterPredictionTime, 0);
+    }
+
+    /**
+     * Sets the positions, as fractions of the layout, a released splitter snaps to.
+     *
+     * @param fractions the snap points, between 0 and 1
+     */
+    public void setSplitterSnapPoints(float... fractions) {
+        mSnapper.setFractions(fractions);
+    }
+
+    /**
+     * Gets the positions, as fractions of the layout, a released splitter snaps to.
+     *
+     * @return the snap points
+     */
+    public float[] getSplitterSnapPoints() {
+        return mSnapper.getFractions();
+    }
+
+    /**
+     * Sets the positions, in pixels, a released splitter snaps to.
+     *
+     * @param pixels the snap points, in pixels
+     */
+    public void setSplitterSnapPointsPixels(int... pixels) {
+        mSnapper.setPixels(pixels);
+    }
+
+    /**
+     * Gets the positions, in pixels, a released splitter snaps to.
+     *
+     * @return the snap points, in pixels
+     */
+    public int[] getSplitterSnapPointsPixels() {
+        return mSnapper.getPixels();
+    }
+
+    /**
+     * Sets whether a released splitter snaps to either end of its range,
+     * collapsing a pane to the minimum pane size.
+     *
+     * @param splitterSnapToEdges whether to snap to the ends of the range
+     */
+    public void setSplitterSnapToEdges(boolean splitterSnapToEdges) {
+        mSnapper.setSnapToEdges(splitterSnapToEdges);
+    }
+
+    /**
+     * Gets whether a released splitter snaps to either end of its range.
+     *
+     * @return whether to snap to the ends of the range
+     */
+    public boolean isSplitterSnapToEdges() {
+        return mSnapper.isSnapToEdges();
+    }
+
+    /**
+     * Gets the current position of the splitter in pixels.
+     *
+     * @return the position of the splitter
+     */
+    public int getSplitterPosition() {
+        return getSplitterPosition(0);
+    }
+
+    /**
+     * Gets the current position of a splitter in pixels.
+     *
+     * @param index the index of the splitter
+     * @return the position of the splitter
+     */
+    public int getSplitterPosition(int index) {
+        checkSplitterIndex(index);
+        return mGeometry.getPosition(index);
+    }
+
+    /**
+     * Sets the current position of the splitter in pixels.
+     *
+     * @param position the desired position of the splitter
+     */
+    public void setSplitterPosition(int position) {
+        setSplitterPosition(0, position);
+    }
+
+    /**
+     * Sets the current position of a splitter in pixels.
+     *
+     * @param index    the index of the splitter
+     * @param position the desired position of the splitter
+     */
+    public void setSplitterPosition(int index, int position) {
+        checkSplitterIndex(index);
+        if (mAnimatingSplitter == index) {
+            stopSplitterAnimation();
+        }
+        mGeometry.setPosition(index, position);
+        mSplitterPositionExplicit = true;
+        remeasure();
+        notifySplitterPositionChanged(false);
+        dispatchPositionUpdate(index, OnSplitterPositionUpdateListener.PHASE_END, false);
+    }
+
+    /**
+     * Gets the current position of the splitter as a percent.
+     *
+     * @return the position of the splitter
+     */
+    public float getSplitterPositionPercent() {
+        return getSplitterPositionPercent(0);
+    }
+
+    /**
+     * Gets the current position of a splitter as a percent.
+     *
+     * @param index the index of the splitter
+     * @return the position of the splitter
+     */
+    public float getSplitterPositionPercent(int index) {
+        checkSplitterIndex(index);
+        return mGeometry.getPositionPercent(index);
+    }
+
+    /**
+     * Sets the current position of the splitter as a percentage of the layout.
+     *
+     * @param position the desired position of the splitter
+     */
+    public void setSplitterPositionPercent(float position) {
+        setSplitterPositionPercent(0, position);
+    }
+
+    /**
+     * Sets the current position of a splitter as a percentage of the layout.
+     *
+     * @param index    the index of the splitter
+     * @param position the desired position of the splitter
+     */
+    public void setSplitterPositionPercent(int index, float position) {
+        checkSplitterIndex(index);
+        if (mAnimatingSplitter == index) {
+            stopSplitterAnimation();
+        }
+        mGeometry.setPositionPercent(index, position);
+        mSplitterPositionExplicit = true;
+        remeasure();
+        notifySplitterPositionChanged(false);
+        dispatchPositionUpdate(index, OnSplitterPositionUpdateListener.PHASE_END, false);
+    }
+
+    /**
+     * Animates the first splitter to a position in pixels. See
+     * {@link #animateSplitterPosition(int, int, long, TimeInterpolator)}.
+     *
+     * @param position the desired position of the splitter
+     */
+    public void animateSplitterPosition(int position) {
+        animateSplitterPosition(0, position, ANIMATION_DURATION, null);
+    }
+
+    /**
+     * Animates a splitter to a position in pixels. The panes are clipped and translated
+     * while the splitter moves and measured once it arrives. Animating a splitter which
+     * is already animating retargets the running animation from where the splitter is.
+     * Before the layout is measured the position is set right away.
+     *
+     * @param index          the index of the splitter
+     * @param position       the desired position of the splitter
+     * @param durationMillis the duration of the animation, in milliseconds
+     * @param interpolator   the easing of the animation, or null for the default
+     */
+    public void animateSplitterPosition(int index, int position, long durationMillis, TimeInterpolator interpolator) {
+        checkSplitterIndex(index);
+        if (!isMeasured || isDragging) {
+            setSplitterPosition(index, position);
+            return;
+        }
+        animateSplitter(index, mGeometry.clampPosition(index, position), durationMillis, getAnimationInterpolator(interpolator), false);
+    }
+
+    /**
+     * Animates the first splitter to a position as a percentage of the layout. See
+     * {@link #animateSplitterPositionPercent(int, float, long, TimeInterpolator)}.
+     *
+     * @param position the desired position of the splitter
+     */
+    public void animateSplitterPositionPercent(float position) {
+        animateSplitterPositionPercent(0, position, ANIMATION_DURATION, null);
+    }
+
+    /**
+     * Animates a splitter to a position as a percentage of the layout. The panes are
+     * clipped and translated while the splitter moves and measured once it arrives.
+     * Animating a splitter which is already animating retargets the running animation
+     * from where the splitter is. Before the layout is measured the position is set
+     * right away.
+     *
+     * @param index          the index of the splitter
+     * @param position       the desired position of the splitter
+     * @param durationMillis the duration of the animation, in milliseconds
+     * @param interpolator   the easing of the animation, or null for the default
+     */
+    public void animateSplitterPositionPercent(int index, float position, long durationMillis, TimeInterpolator interpolator) {
+        checkSplitterIndex(index);
+        if (!isMeasured || isDragging) {
+            setSplitterPositionPercent(index, position);
+            return;
+        }
+        int target = MultiSplitGeometry.toPixels(MultiSplitGeometry.clamp(position, 0f, 1f), mGeometry.getLength());
+        animateSplitter(index, mGeometry.clampPosition(index, target), durationMillis, getAnimationInterpolator(interpolator), false);
+    }
+
+    private TimeInterpolator getAnimationInterpolator(TimeInterpolator interpolator) {
+        if (interpolator != null) {
+            return interpolator;
+        }
+        if (mDefaultInterpolator == null) {
+            mDefaultInterpolator = new AccelerateDecelerateInterpolator();
+        }
+        return mDefaultInterpolator;
+    }
+
+    /**
+     * Posts the position of a splitter in pixels from any thread. See
+     * {@link #postSplitterPositionPercent(int, float)}.
+     *
+     * @param index    the index of the splitter, less than {@link #POSTED_SPLITTERS_MAX}
+     * @param position the desired position of the splitter
+     */
+    public void postSplitterPosition(int index, int position) {
+        if (mPositionMailbox.postPosition(index, position)) {
+            schedulePostedPositions();
+        }
+    }
+
+    /**
+     * Posts the position of a splitter, as a percentage of the layout, from any thread,
+     * such as a worker sizing a pane to the data it loaded. Only the latest position
+     * posted for each splitter is kept: everything posted before the next frame is
+     * applied on the UI thread in one batch with a single measure, and the positions
+     * in between are dropped. Before the layout is attached there is no frame to wait
+     * for, and the positions are applied as soon as the UI thread gets to them.
+     * Positions for a splitter the user is dragging, or which no longer exists, are
+     * dropped as well.
+     *
+     * @param index    the index of the splitter, less than {@link #POSTED_SPLITTERS_MAX}
+     * @param position the desired position of the splitter
+     */
+    public void postSplitterPositionPercent(int index, float position) {
+        if (mPositionMailbox.postPositionPercent(index, position)) {
+            schedulePostedPositions();
+        }
+    }
+
+    /**
+     * Schedules the posted positions to be applied on the UI thread, on the next frame
+     * once the layout is attached, or right away before that since no frame is coming.
+     */
+    private void schedulePostedPositions() {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            mMainHandler.post(mSchedulePostedPositionsRunnable);
+        } else if (getWindowToken() != null) {
+            postOnAnimation(mApplyPostedPositionsRunnable);
+        } else {
+            applyPostedPositions();
+        }
+    }
+
+    private void applyPostedPositions() {
+        syncSplitterCount();
+        beginUpdate();
+        try {
+            mPositionMailbox.drain(mPostedPositionReceiver);
+        } finally {
+            endUpdate();
+        }
+    }
+
+    private boolean canApplyPostedPosition(int splitter) {
+        return splitter < mGeometry.getSplitterCount() && !(isDragging && splitter == mDraggingSplitter);
+    }
+
+    /**
+     * Binds the position of the first splitter, as a percentage of the layout. See
+     * {@link #bindSplitterPositionPercent(int, float)}.
+     *
+     * @param position the desired position of the splitter
+     */
+    public void bindSplitterPositionPercent(float position) {
+        bindSplitterPositionPercent(0, position);
+    }
+
+    /**
+     * Binds the position of a splitter, as a percentage of the layout, such as when
+     * a recycled row of a list is bound to its data. Unlike
+     * {@link #setSplitterPositionPercent(int, float)} the layout is not remeasured
+     * right away and no listeners are notified; the position is picked up by the next
+     * layout pass, and binding the position the splitter already has costs nothing.
+     *
+     * @param index    the index of the splitter
+     * @param position the desired position of the splitter
+     */
+    public void bindSplitterPositionPercent(int index, float position) {
+        checkSplitterIndex(index);
+        if (mGeometry.getPositionPercent(index) == position && mGeometry.getPosition(index) != MultiSplitGeometry.POSITION_UNSET) {
+            return;
+        }
+        mGeometry.setPositionPercent(index, position);
+        mSplitterPositionExplicit = true;
+        if (isMeasured) {
+            requestLayout();
+        }
+    }
+
+    /**
+     * Binds the position of a splitter, in pixels. See
+     * {@link #bindSplitterPositionPercent(int, float)}.
+     *
+     * @param index    the index of the splitter
+     * @param position the desired position of the splitter
+     */
+    public void bindSplitterPosition(int index, int position) {
+        checkSplitterIndex(index);
+        if (mGeometry.getPosition(index) == position) {
+            return;
+        }
+        mGeometry.setPosition(index, position);
+        mSplitterPositionExplicit = true;
+        if (isMeasured) {
+            requestLayout();
+        }
+    }
+
+    /**
+     * Returns the layout to a resting state so it can be reused, such as when a row
+     * of a list is recycled. Any drag is dropped without committing it, and a
+     * running splitter animation stops where it is without notifying listeners.
+     * Splitter positions are kept.
+     */
+    public void reset() {
+        cancelDrag();
+        stopSplitterAnimation();
+        endPreview();
+        clearTransientPosition();
+        if (mPositionUpdatePending) {
+            mPositionUpdatePending = false;
+            Choreographer.getInstance().removeFrameCallback(mPositionUpdateFrameCallback);
+        }
+    }
+
+    /**
+     * Gets the current "touch slop" which is used to extends the grab size of the splitter
+     * and requires the splitter to be dragged at least this far to be considered a move.
+     *
+     * @return the current "touch slop" of the splitter
+     */
+    public int getSplitterTouchSlop() {
+        return mSplitterTouchSlop;
+    }
+
+    /**
+     * Sets the current "touch slop" which is used to extends the grab size of the splitter
+     * and requires the splitter to be dragged at least this far to be considered a move.
+     *
+     * @param splitterTouchSlop the desired "touch slop" of the splitter
+     */
+    public void setSplitterTouchSlop(int splitterTouchSlop) {
+        this.mSplitterTouchSlop = splitterTouchSlop;
+        computeSplitterPosition();
+    }
+
+    /**
+     * Gets the minimum size of panes, in pixels.
+     *
+     * @return the minimum size of panes, in pixels.
+     */
+    public int getPaneSizeMin() {
+        return mGeometry.getPaneSizeMin();
+    }
+
+    /**
+     * Sets the minimum size of panes, in pixels.
+     *
+     * @param paneSizeMin the minimum size of panes, in pixels
+     */
+    public void setPaneSizeMin(int paneSizeMin) {
+        mGeometry.setPaneSizeMin(paneSizeMin);
+        applyPaneSizeConstraints();
+    }
+
+    /**
+     * Gets the minimum size of panes, as a fraction of the layout.
+     *
+     * @return the minimum size of panes, or a negative value if it is set in pixels
+     */
+    public float getPaneSizeMinPercent() {
+        return mGeometry.getPaneSizeMinPercent();
     }
 
     /**
-     * Convenience for calling own measure method.
+     * Sets the minimum size of panes, as a fraction of the layout.
+     *
+     * @param paneSizeMin the minimum size of panes, between 0 and 1
      */
-    private void remeasure() {
-        // TODO: Performance: Guard against calling too often, can it be done without requestLayout?
-        forceLayout();
-        measure(MeasureSpec.makeMeasureSpec(getMeasuredWidth(), MeasureSpec.EXACTLY),
-                MeasureSpec.makeMeasureSpec(getMeasuredHeight(), MeasureSpec.EXACTLY)
-        );
-        requestLayout();
+    public void setPaneSizeMinPercent(float paneSizeMin) {
+        mGeometry.setPaneSizeMinPercent(paneSizeMin);
+        applyPaneSizeConstraints();
     }
 
     /**
-     * Checks that we have exactly two children.
+     * Gets the maximum size of panes, in pixels.
+     *
+     * @return the maximum size of panes, in pixels, or a negative value if there is none
      */
-    private void check() {
-        if (getChildCount() != 2) {
-            throw new RuntimeException("SplitPaneLayout must have exactly two child views.");
-        }
+    public int getPaneSizeMax() {
+        return mGeometry.getPaneSizeMax();
     }
 
-    private void enforcePaneSizeMin() {
+    /**
+     * Sets the maximum size of panes, in pixels.
+     *
+     * @param paneSizeMax the maximum size of panes, in pixels, or a negative value for none
+     */
+    public void setPaneSizeMax(int paneSizeMax) {
+        mGeometry.setPaneSizeMax(paneSizeMax);
+        applyPaneSizeConstraints();
+    }
 
+    /**
+     * Gets the maximum size of panes, as a fraction of the layout.
+     *
+     * @return the maximum size of panes, or a negative value if it is set in pixels
+     */
+    public float getPaneSizeMaxPercent() {
+        return mGeometry.getPaneSizeMaxPercent();
     }
 
-    @Override
-    protected void dispatchDraw(Canvas canvas) {
-        super.dispatchDraw(canvas);
-        if (mSplitterDrawable != null) {
-            mSplitterDrawable.setState(getDrawableState());
-            mSplitterDrawable.setBounds(mSplitterBounds);
-            mSplitterDrawable.draw(canvas);
-        }
-        if (isDragging) {
-            mSplitterDraggingDrawable.setState(getDrawableState());
-            mSplitterDraggingDrawable.setBounds(mSplitterDraggingBounds);
-            mSplitterDraggingDrawable.draw(canvas);
+    /**
+     * Sets the maximum size of panes, as a fraction of the layout.
+     *
+     * @param paneSizeMax the maximum size of panes, between 0 and 1
+     */
+    public void setPaneSizeMaxPercent(float paneSizeMax) {
+        mGeometry.setPaneSizeMaxPercent(paneSizeMax);
+        applyPaneSizeConstraints();
+    }
+
+    /**
+     * Moves any splitter which no longer fits the pane size constraints.
+     */
+    private void applyPaneSizeConstraints() {
+        if (isMeasured) {
+            beginUpdate();
+            int count = mGeometry.getSplitterCount();
+            for (int i = 0; i < count; i++) {
+                if (mGeometry.getPosition(i) == MultiSplitGeometry.POSITION_UNSET) {
+                    // Resolved from its fraction, within the new constraints, by the next measure
+                    continue;
+                }
+                int newSplitterPosition = mGeometry.clampPosition(i, mGeometry.getPosition(i));
+                if (newSplitterPosition != mGeometry.getPosition(i)) {
+                    setSplitterPosition(i, newSplitterPosition);
+                }
+            }
+            endUpdate();
         }
     }
 
     /**
-     * Gets the current drawable used for the splitter.
+     * Gets whether a pane is collapsed.
      *
-     * @return the drawable used for the splitter
+     * @param pane the index of the pane
+     * @return whether the pane is collapsed
      */
-    public Drawable getSplitterDrawable() {
-        return mSplitterDrawable;
+    public boolean isPaneCollapsed(int pane) {
+        checkPaneIndex(pane);
+        return mGeometry.isPaneCollapsed(pane);
     }
 
     /**
-     * Sets the drawable used for the splitter.
+     * Collapses or expands a pane. A collapsed pane is hidden, or released to the
+     * {@link PaneFactory} if there is one, and the splitter next to it moves out of
+     * the way. Expanding the pane puts the splitter back where it was.
      *
-     * @param splitterDrawable the desired orientation of the layout
+     * @param pane      the index of the pane
+     * @param collapsed whether the pane is collapsed
      */
-    public void setSplitterDrawable(Drawable splitterDrawable) {
-        mSplitterDrawable = splitterDrawable;
-        if (getChildCount() == 2) {
-            remeasure();
+    public void setPaneCollapsed(int pane, boolean collapsed) {
+        setPaneCollapsed(pane, collapsed, false);
+    }
+
+    private void setPaneCollapsed(int pane, boolean collapsed, boolean fromUser) {
+        checkPaneIndex(pane);
+        if (mGeometry.isPaneCollapsed(pane) == collapsed) {
+            return;
         }
+        finishSplitterAnimation();
+        mGeometry.setPaneCollapsed(pane, collapsed);
+        applyPaneCollapsed(pane, collapsed);
+        mSplitterPositionExplicit = true;
+        remeasure();
+        notifySplitterPositionChanged(fromUser);
+        dispatchPositionUpdate(mGeometry.getCollapsingSplitter(pane), OnSplitterPositionUpdateListener.PHASE_END, fromUser);
     }
 
     /**
-     * Gets the current drawable used for the splitter dragging overlay.
+     * Gets how close to the far edge of a pane a splitter must be released for the
+     * pane to collapse, in pixels.
      *
-     * @return the drawable used for the splitter
+     * @return the collapse threshold, in pixels, or 0 if dragging does not collapse panes
      */
-    public Drawable getSplitterDraggingDrawable() {
-        return mSplitterDraggingDrawable;
+    public int getPaneCollapseThreshold() {
+        return mPaneCollapseThreshold;
     }
 
     /**
-     * Sets the drawable used for the splitter dragging overlay.
+     * Sets how close to the far edge of a pane a splitter must be released for the
+     * pane to collapse, in pixels. Dragging the splitter of a collapsed pane away
+     * expands it again.
      *
-     * @param splitterDraggingDrawable the drawable to use while dragging the splitter
+     * @param paneCollapseThreshold the collapse threshold, in pixels, or 0 to disable collapsing by dragging
      */
-    public void setSplitterDraggingDrawable(Drawable splitterDraggingDrawable) {
-        mSplitterDraggingDrawable = splitterDraggingDrawable;
-        if (isDragging) {
-            invalidate();
-        }
+    public void setPaneCollapseThreshold(int paneCollapseThreshold) {
+        mPaneCollapseThreshold = Math.max(0, paneCollapseThreshold);
     }
 
     /**
-     * Gets the current orientation of the layout.
+     * Gets the PaneFactory which releases and recreates the views of collapsed panes.
      *
-     * @return the orientation of the layout
+     * @return the PaneFactory, or null if collapsed panes are only hidden
      */
-    public int getOrientation() {
-        return mOrientation;
+    public PaneFactory getPaneFactory() {
+        return mPaneFactory;
     }
 
     /**
-     * Sets the orientation of the layout.
+     * Sets the PaneFactory which releases the views of collapsed panes and creates
+     * them again when the panes are expanded. Without one, collapsed panes are only
+     * hidden.
      *
-     * @param orientation the desired orientation of the layout
+     * @param paneFactory the PaneFactory, or null to only hide collapsed panes
      */
-    public void setOrientation(int orientation) {
-        if (mOrientation != orientation) {
-            mOrientation = orientation;
-            if (getChildCount() == 2) {
-                remeasure();
-            }
-        }
+    public void setPaneFactory(PaneFactory paneFactory) {
+        mPaneFactory = paneFactory;
     }
 
     /**
-     * Gets the current size of the splitter in pixels.
+     * Gets the group this layout keeps its splitter positions in sync with.
      *
-     * @return the size of the splitter
+     * @return the group, or null
      */
-    public int getSplitterSize() {
-        return mSplitterSize;
+    public SplitterGroup getSplitterGroup() {
+        return mSplitterGroup;
     }
 
     /**
-     * Sets the current size of the splitter in pixels.
+     * Sets a group to keep the splitter positions of this layout in sync with. The
+     * layout takes on the positions the group already has, and moving one of its
+     * splitters moves the splitter at the same index of every other member. Set the
+     * group back to null to leave it, as the group holds on to its members.
      *
-     * @param splitterSize the desired size of the splitter
+     * @param group the group, or null to leave the current group
      */
-    public void setSplitterSize(int splitterSize) {
-        mSplitterSize = splitterSize;
-        if (getChildCount() == 2) {
-            remeasure();
+    public void setSplitterGroup(SplitterGroup group) {
+        if (mSplitterGroup == group) {
+            return;
+        }
+        if (mSplitterGroup != null) {
+            mSplitterGroup.remove(this);
+        }
+        mSplitterGroup = group;
+        if (group != null) {
+            group.add(this);
         }
     }
 
     /**
-     * Gets whether the splitter is movable by the user.
+     * Gets the store the splitter positions are persisted in.
      *
-     * @return whether the splitter is movable
+     * @return the store the splitter positions are persisted in, or null
      */
-    public boolean isSplitterMovable() {
-        return mSplitterMovable;
+    public SplitPositionStore getSplitterPositionStore() {
+        return mPositionStore;
     }
 
     /**
-     * Sets whether the splitter is movable by the user.
+     * Sets a store to persist the splitter positions in, keyed by the id of this
+     * layout. Positions the user settles on are saved to the store. Positions already
+     * in it are applied right away if the store has been read, so setting it before
+     * the layout is first measured, such as right after inflating it, lays the layout
+     * out once at the stored positions. Otherwise they are applied by the next
+     * measure, which waits briefly for the store to be read.
      *
-     * @param splitterMovable whether the splitter is movable
+     * @param store the store to persist the splitter positions in, or null
      */
-    public void setSplitterMovable(boolean splitterMovable) {
-        mSplitterMovable = splitterMovable;
+    public void setSplitterPositionStore(SplitPositionStore store) {
+        mPositionStore = store;
+        mPositionStoreRestorePending = false;
+        if (store == null) {
+            return;
+        }
+        String key = getPositionStoreKey();
+        if (key == null) {
+            return;
+        }
+        if (store.isLoaded()) {
+            float[] percents = store.get(key);
+            if (percents != null) {
+                applySplitterPositionPercents(percents, null);
+            }
+            return;
+        }
+        mPositionStoreRestorePending = true;
+        requestLayout();
     }
 
     /**
-     * Gets the current position of the splitter in pixels.
-     *
-     * @return the position of the splitter
+     * Applies the positions kept in the position store during a measure, before the
+     * splitters are resolved, so restoring them takes no extra pass. Should the store
+     * still not be read in time, the layout is measured again once it is.
      */
-    public int getSplitterPosition() {
-        return mSplitterPosition;
+    private void restoreSplitterPositions() {
+        final SplitPositionStore store = mPositionStore;
+        if (!store.awaitLoaded(POSITION_STORE_TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (!mPositionStoreLoadAwaited) {
+                mPositionStoreLoadAwaited = true;
+                store.whenLoaded(new SplitPositionStore.OnLoadedListener() {
+                    @Override
+                    public void onLoaded(SplitPositionStore loaded) {
+                        mMainHandler.post(mPositionStoreLoadedRunnable);
+                    }
+                });
+            }
+            return;
+        }
+        mPositionStoreRestorePending = false;
+        float[] percents = store.get(getPositionStoreKey());
+        if (percents == null) {
+            return;
+        }
+        syncSplitterCount();
+        int count = Math.min(percents.length, mGeometry.getSplitterCount());
+        for (int i = 0; i < count; i++) {
+            if (percents[i] >= 0) {
+                mGeometry.setPositionPercent(i, percents[i]);
+            }
+        }
+        mSplitterPositionExplicit = true;
+        if (isMeasured) {
+            notifySplitterPositionChanged(false);
+        }
     }
 
     /**
-     * Sets the current position of the splitter in pixels.
+     * Gets the OnSplitterPositionChangedListener to receive callbacks when the splitter position is changed
      *
-     * @param position the desired position of the splitter
+     * @return the OnSplitterPositionChangedListener to receive callbacks when the splitter position is changed
      */
-    public void setSplitterPosition(int position) {
-        mSplitterPosition = clamp(position, 0, Integer.MAX_VALUE);
-        mSplitterPositionPercent = -1;
-        remeasure();
-        notifySplitterPositionChanged(false);
+    public OnSplitterPositionChangedListener getOnSplitterPositionChangedListener() {
+        return mOnSplitterPositionChangedListener;
     }
 
     /**
-     * Gets the current position of the splitter as a percent.
+     * Sets the OnSplitterPositionChangedListener to receive callbacks when the splitter position is changed
      *
-     * @return the position of the splitter
+     * @param l the OnSplitterPositionChangedListener to receive callbacks when the splitter position is changed
      */
-    public float getSplitterPositionPercent() {
-        return mSplitterPositionPercent;
+    public void setOnSplitterPositionChangedListener(OnSplitterPositionChangedListener l) {
+        this.mOnSplitterPositionChangedListener = l;
+    }
+
+    private void notifySplitterPositionChanged(boolean fromUser) {
+        if (mUpdateDepth > 0) {
+            mNotifyPending = true;
+            mNotifyPendingFromUser |= fromUser;
+            return;
+        }
+        if (mTracer != null) {
+            mTracer.onSplitterPositionChanged(this, fromUser);
+        }
+        if (mSplitterGroup != null) {
+            int count = mGeometry.getSplitterCount();
+            for (int i = 0; i < count; i++) {
+                float percent = mGeometry.getPositionPercent(i);
+                if (percent >= 0) {
+                    mSplitterGroup.publish(this, i, percent);
+                }
+            }
+        }
+        if (fromUser && mPositionStore != null) {
+            String key = getPositionStoreKey();
+            if (key != null) {
+                mPositionStore.put(key, getSplitterPositionPercents());
+            }
+        }
+        if (mOnSplitterPositionChangedListener != null) {
+            if (mTracer != null) {
+                mTracer.beginSection(this, SplitPaneTracer.SECTION_LISTENER);
+            }
+            mOnSplitterPositionChangedListener.onSplitterPositionChanged(this, fromUser);
+            if (mTracer != null) {
+                mTracer.endSection(this, SplitPaneTracer.SECTION_LISTENER);
+            }
+        }
     }
 
     /**
-     * Sets the current position of the splitter as a percentage of the layout.
+     * Gets the OnSplitterPositionUpdateListener receiving the continuous stream of splitter positions
      *
-     * @param position the desired position of the splitter
+     * @return the OnSplitterPositionUpdateListener receiving the continuous stream of splitter positions
      */
-    public void setSplitterPositionPercent(float position) {
-        mSplitterPosition = Integer.MIN_VALUE;
-        mSplitterPositionPercent = clamp(position, 0, 1);
-        remeasure();
-        notifySplitterPositionChanged(false);
+    public OnSplitterPositionUpdateListener getOnSplitterPositionUpdateListener() {
+        return mOnSplitterPositionUpdateListener;
     }
 
     /**
-     * Gets the current "touch slop" which is used to extends the grab size of the splitter
-     * and requires the splitter to be dragged at least this far to be considered a move.
+     * Sets the OnSplitterPositionUpdateListener receiving the continuous stream of splitter positions
      *
-     * @return the current "touch slop" of the splitter
+     * @param l the OnSplitterPositionUpdateListener receiving the continuous stream of splitter positions
      */
-    public int getSplitterTouchSlop() {
-        return mSplitterTouchSlop;
+    public void setOnSplitterPositionUpdateListener(OnSplitterPositionUpdateListener l) {
+        mOnSplitterPositionUpdateListener = l;
+        if (l == null && mPositionUpdatePending) {
+            mPositionUpdatePending = false;
+            Choreographer.getInstance().removeFrameCallback(mPositionUpdateFrameCallback);
+        }
     }
 
     /**
-     * Sets the current "touch slop" which is used to extends the grab size of the splitter
-     * and requires the splitter to be dragged at least this far to be considered a move.
-     *
-     * @param splitterTouchSlop the desired "touch slop" of the splitter
+     * Queues an in-drag position update for the next frame, replacing any update
+     * already queued.
      */
-    public void setSplitterTouchSlop(int splitterTouchSlop) {
-        this.mSplitterTouchSlop = splitterTouchSlop;
-        computeSplitterPosition();
+    private void postPositionUpdate(int splitter, int position, int phase) {
+        mPendingUpdateSplitter = splitter;
+        mPendingUpdatePosition = position;
+        mPendingUpdatePhase = phase;
+        if (!mPositionUpdatePending) {
+            mPositionUpdatePending = true;
+            Choreographer.getInstance().postFrameCallback(mPositionUpdateFrameCallback);
+        }
+    }
+
+    private void flushPositionUpdate() {
+        if (mPositionUpdatePending) {
+            mPositionUpdatePending = false;
+            deliverPositionUpdate(mPendingUpdateSplitter, mPendingUpdatePosition, true, mPendingUpdatePhase);
+        }
     }
 
     /**
-     * Gets the minimum size of panes, in pixels.
+     * Delivers a start or end of a position change right away, dropping any queued
+     * in-drag update it supersedes. End updates report the committed position.
+     */
+    private void dispatchPositionUpdate(int splitter, int phase, boolean fromUser) {
+        if (mOnSplitterPositionUpdateListener == null) {
+            return;
+        }
+        if (mPositionUpdatePending) {
+            mPositionUpdatePending = false;
+            Choreographer.getInstance().removeFrameCallback(mPositionUpdateFrameCallback);
+        }
+        if (mGeometry.getPosition(splitter) == MultiSplitGeometry.POSITION_UNSET) {
+            computeSplitterPosition();
+        }
+        deliverPositionUpdate(splitter, mGeometry.getPosition(splitter), fromUser, phase);
+    }
+
+    private void deliverPositionUpdate(int splitter, int position, boolean fromUser, int phase) {
+        OnSplitterPositionUpdateListener listener = mOnSplitterPositionUpdateListener;
+        if (listener != null) {
+            int length = mGeometry.getLength();
+            float fraction = length > 0 ? (float) position / (float) length : 0f;
+            if (mTracer != null) {
+                mTracer.beginSection(this, SplitPaneTracer.SECTION_LISTENER);
+            }
+            listener.onSplitterPositionUpdate(this, splitter, position, fraction, fromUser, phase);
+            if (mTracer != null) {
+                mTracer.endSection(this, SplitPaneTracer.SECTION_LISTENER);
+            }
+        }
+    }
+
+    /**
+     * Gets the OnPaneSizeChangeListener receiving the visible size of each pane
      *
-     * @return the minimum size of panes, in pixels.
+     * @return the OnPaneSizeChangeListener receiving the visible size of each pane
      */
-    public int getPaneSizeMin() {
-        return mPaneSizeMin;
+    public OnPaneSizeChangeListener getOnPaneSizeChangeListener() {
+        return mOnPaneSizeChangeListener;
     }
 
     /**
-     * Sets the minimum size of panes, in pixels.
+     * Sets the OnPaneSizeChangeListener receiving the visible size of each pane. The
+     * current size and state of every pane is reported on the next frame.
      *
-     * @param paneSizeMin the minimum size of panes, in pixels
+     * @param l the OnPaneSizeChangeListener receiving the visible size of each pane
      */
-    public void setPaneSizeMin(int paneSizeMin) {
-        mPaneSizeMin = paneSizeMin;
-        if (isMeasured) {
-            int newSplitterPosition = clamp(mSplitterPosition, getMinSplitterPosition(), getMaxSplitterPosition());
-            if(newSplitterPosition != mSplitterPosition) {
-                setSplitterPosition(newSplitterPosition);
+    public void setOnPaneSizeChangeListener(OnPaneSizeChangeListener l) {
+        mOnPaneSizeChangeListener = l;
+        mReportedPaneSizes = new int[0];
+        mReportedPaneStates = new int[0];
+        if (l == null) {
+            if (mPaneSizeUpdatePending) {
+                mPaneSizeUpdatePending = false;
+                Choreographer.getInstance().removeFrameCallback(mPaneSizeFrameCallback);
             }
+        } else if (isMeasured) {
+            postPaneSizeUpdate();
         }
     }
 
     /**
-     * Gets the OnSplitterPositionChangedListener to receive callbacks when the splitter position is changed
+     * Gets the size below which a pane is reported as small.
      *
-     * @return the OnSplitterPositionChangedListener to receive callbacks when the splitter position is changed
+     * @return the size threshold, in pixels
      */
-    public OnSplitterPositionChangedListener getOnSplitterPositionChangedListener() {
-        return mOnSplitterPositionChangedListener;
+    public int getPaneSizeThreshold() {
+        return mPaneSizeThreshold;
     }
 
     /**
-     * Sets the OnSplitterPositionChangedListener to receive callbacks when the splitter position is changed
+     * Sets the size below which a pane is reported as
+     * {@link OnPaneSizeChangeListener#STATE_SMALL}, such as the size below which its
+     * content is not worth rendering at full rate.
      *
-     * @param l the OnSplitterPositionChangedListener to receive callbacks when the splitter position is changed
+     * @param paneSizeThreshold the size threshold, in pixels, 0 to never report panes as small
      */
-    public void setOnSplitterPositionChangedListener(OnSplitterPositionChangedListener l) {
-        this.mOnSplitterPositionChangedListener = l;
+    public void setPaneSizeThreshold(int paneSizeThreshold) {
+        mPaneSizeThreshold = Math.max(paneSizeThreshold, 0);
+        if (mOnPaneSizeChangeListener != null && isMeasured) {
+            postPaneSizeUpdate();
+        }
     }
 
-    private void notifySplitterPositionChanged(boolean fromUser) {
-        if (mOnSplitterPositionChangedListener != null) {
-            Log.d("SPL", "Splitter Position Changed");
-            mOnSplitterPositionChangedListener.onSplitterPositionChanged(this, fromUser);
+    /**
+     * Queues a report of the pane sizes for the next frame, unless one is queued already.
+     */
+    private void postPaneSizeUpdate() {
+        if (mOnPaneSizeChangeListener != null && !mPaneSizeUpdatePending) {
+            mPaneSizeUpdatePending = true;
+            Choreographer.getInstance().postFrameCallback(mPaneSizeFrameCallback);
         }
     }
 
-    private static float clamp(float value, float min, float max) {
-        if (value < min) {
-            return min;
-        } else if (value > max) {
-            return max;
+    /**
+     * Reports the size and state of every pane which changed since the last report.
+     */
+    private void reportPaneSizes() {
+        OnPaneSizeChangeListener listener = mOnPaneSizeChangeListener;
+        int length = mGeometry.getLength();
+        if (listener == null || length <= 0) {
+            return;
+        }
+        int paneCount = mGeometry.getSplitterCount() + 1;
+        if (mReportedPaneSizes.length != paneCount) {
+            mReportedPaneSizes = new int[paneCount];
+            mReportedPaneStates = new int[paneCount];
+            Arrays.fill(mReportedPaneSizes, -1);
+            Arrays.fill(mReportedPaneStates, -1);
+        }
+        for (int i = 0; i < paneCount; i++) {
+            int size = getVisiblePaneSize(i);
+            int state;
+            if (size <= 0 || mGeometry.isPaneCollapsed(i)) {
+                state = OnPaneSizeChangeListener.STATE_COLLAPSED;
+            } else if (size < mPaneSizeThreshold) {
+                state = OnPaneSizeChangeListener.STATE_SMALL;
+            } else {
+                state = OnPaneSizeChangeListener.STATE_NORMAL;
+            }
+            if (size != mReportedPaneSizes[i]) {
+                mReportedPaneSizes[i] = size;
+                listener.onPaneSizeChanged(this, i, size, (float) size / (float) length);
+            }
+            if (state != mReportedPaneStates[i]) {
+                mReportedPaneStates[i] = state;
+                listener.onPaneStateChanged(this, i, state);
+            }
         }
-        return value;
     }
 
-    private static int clamp(int value, int min, int max) {
-        if (value < min) {
-            return min;
-        } else if (value > max) {
-            return max;
+    /**
+     * Gets the size of a pane as drawn, which while a splitter is dragged, animated or
+     * previewed is the part of the pane left by the clip.
+     */
+    private int getVisiblePaneSize(int pane) {
+        if (mGeometry.isPaneCollapsed(pane)) {
+            return 0;
+        }
+        int start = mGeometry.getPaneStart(pane);
+        int end = mGeometry.getPaneEnd(pane);
+        int index = mTransientSplitter;
+        if (index != MultiSplitGeometry.NO_SPLITTER) {
+            int half = mGeometry.getSplitterSize() / 2;
+            if (pane == index) {
+                end = mTransientPosition - half;
+            } else if (pane == index + 1) {
+                start = mTransientPosition + half;
+            }
         }
-        return value;
+        return Math.max(end - start, 0);
+    }
+
+    /**
+     * Gets the tracer receiving instrumentation callbacks.
+     *
+     * @return the tracer, or null if instrumentation is disabled
+     */
+    public SplitPaneTracer getTracer() {
+        return mTracer;
     }
 
-    private static boolean between(int value, int min, int max) {
-        return min <= value && value <= max;
+    /**
+     * Sets the tracer receiving instrumentation callbacks, such as a
+     * {@link SplitPaneMetrics}. Instrumentation is disabled while there is none.
+     *
+     * @param tracer the tracer, or null to disable instrumentation
+     */
+    public void setTracer(SplitPaneTracer tracer) {
+        mTracer = tracer;
     }
 
     /**
@@ -715,7 +3086,8 @@ public class SplitPaneLayout extends ViewGroup {
 
         };
 
-        float mSplitterPositionPercent;
+        float[] mSplitterPositionPercents;
+        boolean[] mPanesCollapsed;
 
         SavedState(Parcelable superState) {
             super(superState);
@@ -723,13 +3095,115 @@ public class SplitPaneLayout extends ViewGroup {
 
         private SavedState(Parcel in) {
             super(in);
-            mSplitterPositionPercent = in.readFloat();
+            mSplitterPositionPercents = in.createFloatArray();
+            mPanesCollapsed = in.createBooleanArray();
         }
 
         @Override
         public void writeToParcel(Parcel out, int flags) {
             super.writeToParcel(out, flags);
-            out.writeFloat(mSplitterPositionPercent);
+            out.writeFloatArray(mSplitterPositionPercents);
+            out.writeBooleanArray(mPanesCollapsed);
+        }
+    }
+
+    /**
+     * Per-child layout information: the weight and size constraints of its pane.
+     */
+    public static class LayoutParams extends ViewGroup.LayoutParams {
+        /**
+         * The share of the layout the pane gets until a splitter is positioned
+         * explicitly. Values that are not positive count as 1.
+         */
+        public float weight = 0;
+        /**
+         * The minimum size of the pane in pixels, or a negative value to use the
+         * minimum of the layout.
+         */
+        public int sizeMin = -1;
+        /**
+         * The minimum size of the pane as a fraction of the layout, or a negative
+         * value. Takes precedence over {@link #sizeMin}.
+         */
+        public float sizeMinPercent = -1;
+        /**
+         * The maximum size of the pane in pixels, or a negative value to use the
+         * maximum of the layout.
+         */
+        public int sizeMax = -1;
+        /**
+         * The maximum size of the pane as a fraction of the layout, or a negative
+         * value. Takes precedence over {@link #sizeMax}.
+         */
+        public float sizeMaxPercent = -1;
+
+        public LayoutParams(int width, int height) {
+            super(width, height);
+        }
+
+        public LayoutParams(Context context, AttributeSet attrs) {
+            super(context, attrs);
+            TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SplitPaneLayout_Layout);
+            weight = a.getFloat(R.styleable.SplitPaneLayout_Layout_layout_paneWeight, 0);
+            TypedValue value = a.peekValue(R.styleable.SplitPaneLayout_Layout_layout_paneSizeMin);
+            if (value != null) {
+                if (value.type == TypedValue.TYPE_FRACTION) {
+                    sizeMinPercent = getFraction(a, R.styleable.SplitPaneLayout_Layout_layout_paneSizeMin);
+                } else {
+                    sizeMin = a.getDimensionPixelSize(R.styleable.SplitPaneLayout_Layout_layout_paneSizeMin, -1);
+                }
+            }
+            value = a.peekValue(R.styleable.SplitPaneLayout_Layout_layout_paneSizeMax);
+            if (value != null) {
+                if (value.type == TypedValue.TYPE_FRACTION) {
+                    sizeMaxPercent = getFraction(a, R.styleable.SplitPaneLayout_Layout_layout_paneSizeMax);
+                } else {
+                    sizeMax = a.getDimensionPixelSize(R.styleable.SplitPaneLayout_Layout_layout_paneSizeMax, -1);
+                }
+            }
+            a.recycle();
+        }
+
+        public LayoutParams(ViewGroup.LayoutParams source) {
+            super(source);
+            if (source instanceof LayoutParams) {
+                LayoutParams lp = (LayoutParams) source;
+                weight = lp.weight;
+                sizeMin = lp.sizeMin;
+                sizeMinPercent = lp.sizeMinPercent;
+                sizeMax = lp.sizeMax;
+                sizeMaxPercent = lp.sizeMaxPercent;
+            }
+        }
+    }
+
+    @Override
+    protected LayoutParams generateDefaultLayoutParams() {
+        return new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT);
+    }
+
+    @Override
+    public LayoutParams generateLayoutParams(AttributeSet attrs) {
+        return new LayoutParams(getContext(), attrs);
+    }
+
+    @Override
+    protected LayoutParams generateLayoutParams(ViewGroup.LayoutParams p) {
+        return new LayoutParams(p);
+    }
+
+    @Override
+    protected boolean checkLayoutParams(ViewGroup.LayoutParams p) {
+        return p instanceof LayoutParams;
+    }
+
+    /**
+     * Stands in for the view of a collapsed pane released to the {@link PaneFactory}.
+     */
+    private static final class PanePlaceholder extends View {
+        PanePlaceholder(Context context) {
+            super(context);
+            setVisibility(GONE);
         }
     }
 
@@ -0,0 +1,212 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.widget;
+
+import android.os.Build;
+import android.os.Trace;
+import android.util.Log;
+
+import java.util.Arrays;
+
+/**
+ * A {@link SplitPaneTracer} which counts and times every section, and can also
+ * emit {@link Trace} sections for systrace/Perfetto and log position changes.
+ * <p/>
+ * One instance may be shared by several layouts, in which case the numbers are
+ * aggregated. Recording does not allocate.
+ */
+public class SplitPaneMetrics implements SplitPaneTracer {
+
+    private static final String TAG = "SPL";
+
+    private static final String[] SECTION_NAMES = {
+            "SplitPaneLayout#measure",
+            "SplitPaneLayout#layout",
+            "SplitPaneLayout#draw",
+            "SplitPaneLayout#dragFrame",
+            "SplitPaneLayout#drag",
+            "SplitPaneLayout#listener"
+    };
+
+    private final int[] mCounts = new int[SECTION_COUNT];
+    private final long[] mTotalNanos = new long[SECTION_COUNT];
+    private final long[] mMaxNanos = new long[SECTION_COUNT];
+
+    private long[] mStartStack = new long[8];
+    private int mDepth = 0;
+    private long mDragStartNanos;
+
+    private int mRemeasureCount = 0;
+    private int mPositionChangeCount = 0;
+
+    private boolean mSystemTraceEnabled = false;
+    private boolean mLoggingEnabled = false;
+
+    /**
+     * Sets whether sections are also emitted as {@link Trace} sections. Only has an
+     * effect on API 18 and up.
+     *
+     * @param systemTraceEnabled whether to emit trace sections
+     */
+    public void setSystemTraceEnabled(boolean systemTraceEnabled) {
+        mSystemTraceEnabled = systemTraceEnabled;
+    }
+
+    public boolean isSystemTraceEnabled() {
+        return mSystemTraceEnabled;
+    }
+
+    /**
+     * Sets whether splitter position changes are logged.
+     *
+     * @param loggingEnabled whether to log position changes
+     */
+    public void setLoggingEnabled(boolean loggingEnabled) {
+        mLoggingEnabled = loggingEnabled;
+    }
+
+    public boolean isLoggingEnabled() {
+        return mLoggingEnabled;
+    }
+
+    @Override
+    public void beginSection(SplitPaneLayout layout, int section) {
+        long now = System.nanoTime();
+        if (section == SECTION_DRAG) {
+            mDragStartNanos = now;
+            return;
+        }
+        if (mDepth == mStartStack.length) {
+            mStartStack = Arrays.copyOf(mStartStack, mDepth * 2);
+        }
+        mStartStack[mDepth++] = now;
+        if (mSystemTraceEnabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.beginSection(SECTION_NAMES[section]);
+        }
+    }
+
+    @Override
+    public void endSection(SplitPaneLayout layout, int section) {
+        long start;
+        if (section == SECTION_DRAG) {
+            start = mDragStartNanos;
+        } else {
+            if (mDepth == 0) {
+                return;
+            }
+            start = mStartStack[--mDepth];
+            if (mSystemTraceEnabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+                Trace.endSection();
+            }
+        }
+        long duration = System.nanoTime() - start;
+        mCounts[section]++;
+        mTotalNanos[section] += duration;
+        if (duration > mMaxNanos[section]) {
+            mMaxNanos[section] = duration;
+        }
+    }
+
+    @Override
+    public void onRemeasureRequested(SplitPaneLayout layout) {
+        mRemeasureCount++;
+    }
+
+    @Override
+    public void onSplitterPositionChanged(SplitPaneLayout layout, boolean fromUser) {
+        mPositionChangeCount++;
+        if (mLoggingEnabled) {
+            Log.d(TAG, "Splitter Position Changed");
+        }
+    }
+
+    /**
+     * Gets how many times a section ran.
+     *
+     * @param section one of the SECTION_ constants of {@link SplitPaneTracer}
+     * @return the number of times the section ran
+     */
+    public int getCount(int section) {
+        return mCounts[section];
+    }
+
+    /**
+     * Gets the total time spent in a section.
+     *
+     * @param section one of the SECTION_ constants of {@link SplitPaneTracer}
+     * @return the total time, in nanoseconds
+     */
+    public long getTotalNanos(int section) {
+        return mTotalNanos[section];
+    }
+
+    /**
+     * Gets the longest single run of a section.
+     *
+     * @param section one of the SECTION_ constants of {@link SplitPaneTracer}
+     * @return the longest run, in nanoseconds
+     */
+    public long getMaxNanos(int section) {
+        return mMaxNanos[section];
+    }
+
+    /**
+     * Gets the average run of a section.
+     *
+     * @param section one of the SECTION_ constants of {@link SplitPaneTracer}
+     * @return the average run, in nanoseconds, or 0 if it never ran
+     */
+    public long getAverageNanos(int section) {
+        return mCounts[section] == 0 ? 0 : mTotalNanos[section] / mCounts[section];
+    }
+
+    public int getRemeasureCount() {
+        return mRemeasureCount;
+    }
+
+    public int getPositionChangeCount() {
+        return mPositionChangeCount;
+    }
+
+    /**
+     * Clears all counters and timings.
+     */
+    public void reset() {
+        Arrays.fill(mCounts, 0);
+        Arrays.fill(mTotalNanos, 0);
+        Arrays.fill(mMaxNanos, 0);
+        mRemeasureCount = 0;
+        mPositionChangeCount = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("SplitPaneMetrics{remeasures=").append(mRemeasureCount)
+                .append(", positionChanges=").append(mPositionChangeCount);
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            builder.append(", ").append(SECTION_NAMES[i].substring(SECTION_NAMES[i].indexOf('#') + 1))
+                    .append("=").append(mCounts[i])
+                    .append("x/avg ").append(getAverageNanos(i) / 1000).append("us")
+                    .append("/max ").append(mMaxNanos[i] / 1000).append("us");
+        }
+        return builder.append('}').toString();
+    }
+
+}
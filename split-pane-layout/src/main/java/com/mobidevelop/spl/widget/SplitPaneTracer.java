@@ -0,0 +1,76 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.widget;
+
+/**
+ * Receives instrumentation callbacks from a {@link SplitPaneLayout}.
+ * <p/>
+ * Sections are strictly nested on the UI thread, except for
+ * {@link #SECTION_DRAG} which spans a whole gesture. A layout without a tracer
+ * skips all instrumentation, so tracing costs nothing unless it is enabled.
+ *
+ * @see SplitPaneMetrics
+ */
+public interface SplitPaneTracer {
+
+    /**
+     * The layout's onMeasure.
+     */
+    int SECTION_MEASURE = 0;
+    /**
+     * The layout's onLayout.
+     */
+    int SECTION_LAYOUT = 1;
+    /**
+     * The layout's dispatchDraw, including its children.
+     */
+    int SECTION_DRAW = 2;
+    /**
+     * Handling of a single move event while dragging the splitter.
+     */
+    int SECTION_DRAG_FRAME = 3;
+    /**
+     * A whole drag gesture, from grabbing the splitter to releasing it.
+     */
+    int SECTION_DRAG = 4;
+    /**
+     * Dispatch to the OnSplitterPositionChangedListener or the
+     * OnSplitterPositionUpdateListener.
+     */
+    int SECTION_LISTENER = 5;
+
+    int SECTION_COUNT = 6;
+
+    void beginSection(SplitPaneLayout layout, int section);
+
+    void endSection(SplitPaneLayout layout, int section);
+
+    /**
+     * Called whenever the layout asks to be measured again. Changes made inside a
+     * batch count once, when the outermost batch ends.
+     */
+    void onRemeasureRequested(SplitPaneLayout layout);
+
+    /**
+     * Called whenever a splitter position change is reported to listeners.
+     */
+    void onSplitterPositionChanged(SplitPaneLayout layout, boolean fromUser);
+
+}
@@ -0,0 +1,518 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.widget;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.HapticFeedbackConstants;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.ViewGroup;
+
+import com.mobidevelop.spl.R;
+import com.mobidevelop.spl.core.SplitTree;
+
+/**
+ * A layout that arranges its children according to a tree of splits.
+ * <p/>
+ * Replaces nested SplitPaneLayouts: every pane is measured and laid out in one
+ * flat pass, and all splitters share a single hit test. Child views are the
+ * panes of the tree, in order. The tree is given in code with
+ * {@link #setSplitTree(SplitTree)} or in XML, for example
+ * {@code spl:splitTree="h(25%, 0, v(70%, 1, 2))"}.
+ */
+public class SplitTreeLayout extends ViewGroup {
+
+    public interface OnSplitterPositionChangedListener {
+        void onSplitterPositionChanged(SplitTreeLayout splitTreeLayout, int node, boolean fromUser);
+    }
+
+    private SplitTree mSplitTree;
+    private int mSplitterSize = 8;
+    private boolean mSplitterMovable = true;
+    private int mSplitterTouchSlop = 0;
+    private int mPaneSizeMin = 0;
+    private float mPaneSizeMinPercent = -1;
+
+    private Drawable mSplitterDrawable;
+
+    private Rect mSplitterBounds = new Rect();
+
+    private int[] mChildWidthSpecs = new int[0];
+    private int[] mChildHeightSpecs = new int[0];
+    private View[] mMeasuredChildren = new View[0];
+
+    private OnSplitterPositionChangedListener mOnSplitterPositionChangedListener;
+
+    private int mDraggingNode = SplitTree.NO_NODE;
+
+    public SplitTreeLayout(Context context) {
+        super(context);
+        mSplitterDrawable = SplitterResources.newColorDrawable(SplitterResources.DEFAULT_COLOR);
+    }
+
+    public SplitTreeLayout(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        extractAttributes(context, attrs);
+    }
+
+    public SplitTreeLayout(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+        extractAttributes(context, attrs);
+    }
+
+    private void extractAttributes(Context context, AttributeSet attrs) {
+        if (attrs != null) {
+            TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SplitTreeLayout);
+            String spec = a.getString(R.styleable.SplitTreeLayout_splitTree);
+            if (spec != null) {
+                mSplitTree = SplitTree.parse(spec);
+            }
+            if (a.hasValue(R.styleable.SplitTreeLayout_splitterSize)) {
+                mSplitterSize = a.getDimensionPixelSize(R.styleable.SplitTreeLayout_splitterSize, 0);
+            } else {
+                mSplitterSize = context.getResources().getDimensionPixelSize(R.dimen.spl_default_splitter_size);
+            }
+            mSplitterMovable = a.getBoolean(R.styleable.SplitTreeLayout_splitterMovable, true);
+            TypedValue value = a.peekValue(R.styleable.SplitTreeLayout_splitterBackground);
+            if (value != null) {
+                if (value.type == TypedValue.TYPE_REFERENCE ||
+                        value.type == TypedValue.TYPE_STRING) {
+                    mSplitterDrawable = a.getDrawable(R.styleable.SplitTreeLayout_splitterBackground);
+                } else if (value.type == TypedValue.TYPE_INT_COLOR_ARGB8 ||
+                        value.type == TypedValue.TYPE_INT_COLOR_ARGB4 ||
+                        value.type == TypedValue.TYPE_INT_COLOR_RGB8 ||
+                        value.type == TypedValue.TYPE_INT_COLOR_RGB4) {
+                    mSplitterDrawable = SplitterResources.newColorDrawable(a.getColor(R.styleable.SplitTreeLayout_splitterBackground, 0xFF000000));
+                }
+            }
+            if (a.hasValue(R.styleable.SplitTreeLayout_splitterTouchSlop)) {
+                mSplitterTouchSlop = a.getDimensionPixelSize(R.styleable.SplitTreeLayout_splitterTouchSlop, 0);
+            } else {
+                mSplitterTouchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
+            }
+            value = a.peekValue(R.styleable.SplitTreeLayout_paneSizeMin);
+            if (value != null) {
+                if (value.type == TypedValue.TYPE_FRACTION) {
+                    mPaneSizeMinPercent = a.getFraction(R.styleable.SplitTreeLayout_paneSizeMin, 1, 1, -1);
+                } else {
+                    mPaneSizeMin = a.getDimensionPixelSize(R.styleable.SplitTreeLayout_paneSizeMin, 0);
+                }
+            }
+            a.recycle();
+        }
+        updateSplitterDrawableState();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+
+        int measuredWidth = getMeasuredWidth();
+        int measuredHeight = getMeasuredHeight();
+
+        check();
+
+        if (measuredWidth > 0 && measuredHeight > 0) {
+            computeLayout();
+
+            int childCount = getChildCount();
+            if (mChildWidthSpecs.length < childCount) {
+                mChildWidthSpecs = new int[childCount];
+                mChildHeightSpecs = new int[childCount];
+                mMeasuredChildren = new View[childCount];
+            }
+            for (int i = 0; i < childCount; i++) {
+                int node = mSplitTree.getPaneNode(i);
+                int widthSpec = MeasureSpec.makeMeasureSpec(mSplitTree.getRight(node) - mSplitTree.getLeft(node), MeasureSpec.EXACTLY);
+                int heightSpec = MeasureSpec.makeMeasureSpec(mSplitTree.getBottom(node) - mSplitTree.getTop(node), MeasureSpec.EXACTLY);
+                View child = getChildAt(i);
+                // A child replaced at the same index is measured even if its spec did not change
+                if (widthSpec != mChildWidthSpecs[i] || heightSpec != mChildHeightSpecs[i]
+                        || child != mMeasuredChildren[i] || child.isLayoutRequested()) {
+                    child.measure(widthSpec, heightSpec);
+                    mChildWidthSpecs[i] = widthSpec;
+                    mChildHeightSpecs[i] = heightSpec;
+                    mMeasuredChildren[i] = child;
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        int childCount = getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            int node = mSplitTree.getPaneNode(i);
+            getChildAt(i).layout(mSplitTree.getLeft(node), mSplitTree.getTop(node), mSplitTree.getRight(node), mSplitTree.getBottom(node));
+        }
+    }
+
+    private void computeLayout() {
+        mSplitTree.setSplitterSize(mSplitterSize);
+        mSplitTree.setPaneSizeMin(mPaneSizeMin);
+        mSplitTree.setPaneSizeMinPercent(mPaneSizeMinPercent);
+        mSplitTree.layout(getMeasuredWidth(), getMeasuredHeight());
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (mSplitterMovable && mSplitTree != null) {
+            int x = Math.round(event.getX());
+            int y = Math.round(event.getY());
+
+            switch (event.getActionMasked()) {
+                case MotionEvent.ACTION_DOWN:
+                    mDraggingNode = mSplitTree.hitTest(x, y, mSplitterTouchSlop);
+                    if (mDraggingNode != SplitTree.NO_NODE) {
+                        performHapticFeedback(HapticFeedbackConstants.VIRTUAL_KEY);
+                        setPressed(true);
+                    }
+                    break;
+                case MotionEvent.ACTION_MOVE:
+                    if (mDraggingNode != SplitTree.NO_NODE) {
+                        moveSplitter(x, y);
+                    }
+                    break;
+                case MotionEvent.ACTION_UP:
+                    if (mDraggingNode != SplitTree.NO_NODE) {
+                        moveSplitter(x, y);
+                        notifySplitterPositionChanged(mDraggingNode, true);
+                    }
+                    cancelDrag();
+                    break;
+                case MotionEvent.ACTION_CANCEL:
+                    cancelDrag();
+                    break;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void cancelDrag() {
+        mDraggingNode = SplitTree.NO_NODE;
+        setPressed(false);
+    }
+
+    private void moveSplitter(int x, int y) {
+        int position = mSplitTree.getOrientation(mDraggingNode) == SplitTree.ORIENTATION_HORIZONTAL ? x : y;
+        if (mSplitTree.clampPosition(mDraggingNode, position) != mSplitTree.getPosition(mDraggingNode)) {
+            mSplitTree.moveTo(mDraggingNode, position);
+            // Only the panes below the dragged node change size, the others skip measuring
+            requestLayout();
+            invalidate();
+        }
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        super.dispatchDraw(canvas);
+        if (mSplitterDrawable != null && mSplitTree != null) {
+            int count = mSplitTree.getSplitterCount();
+            for (int i = 0; i < count; i++) {
+                int node = mSplitTree.getSplitterNode(i);
+                if (mSplitTree.getOrientation(node) == SplitTree.ORIENTATION_HORIZONTAL) {
+                    mSplitterBounds.set(mSplitTree.getSplitterStart(node), mSplitTree.getTop(node), mSplitTree.getSplitterEnd(node), mSplitTree.getBottom(node));
+                } else {
+                    mSplitterBounds.set(mSplitTree.getLeft(node), mSplitTree.getSplitterStart(node), mSplitTree.getRight(node), mSplitTree.getSplitterEnd(node));
+                }
+                if (!mSplitterDrawable.getBounds().equals(mSplitterBounds)) {
+                    mSplitterDrawable.setBounds(mSplitterBounds);
+                }
+                mSplitterDrawable.draw(canvas);
+            }
+        }
+    }
+
+    @Override
+    protected void drawableStateChanged() {
+        super.drawableStateChanged();
+        updateSplitterDrawableState();
+    }
+
+    private void updateSplitterDrawableState() {
+        if (mSplitterDrawable != null && mSplitterDrawable.isStateful() && mSplitterDrawable.setState(getDrawableState())) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public Parcelable onSaveInstanceState() {
+        Parcelable superState = super.onSaveInstanceState();
+        SavedState ss = new SavedState(superState);
+        if (mSplitTree != null) {
+            int count = mSplitTree.getSplitterCount();
+            ss.mSplitterPositionPercents = new float[count];
+            for (int i = 0; i < count; i++) {
+                ss.mSplitterPositionPercents[i] = mSplitTree.getPositionPercent(mSplitTree.getSplitterNode(i));
+            }
+        }
+        return ss;
+    }
+
+    @Override
+    public void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState ss = (SavedState) state;
+        super.onRestoreInstanceState(ss.getSuperState());
+        if (mSplitTree != null && ss.mSplitterPositionPercents != null
+                && ss.mSplitterPositionPercents.length == mSplitTree.getSplitterCount()) {
+            for (int i = 0; i < ss.mSplitterPositionPercents.length; i++) {
+                mSplitTree.setPositionPercent(mSplitTree.getSplitterNode(i), ss.mSplitterPositionPercents[i]);
+            }
+            requestLayout();
+        }
+    }
+
+    /**
+     * Checks that there is a tree with one pane per child.
+     */
+    private void check() {
+        if (mSplitTree == null) {
+            throw new RuntimeException("SplitTreeLayout requires a split tree.");
+        }
+        if (getChildCount() != mSplitTree.getPaneCount()) {
+            throw new RuntimeException("SplitTreeLayout must have exactly " + mSplitTree.getPaneCount() + " child views, one per pane of its split tree.");
+        }
+    }
+
+    /**
+     * Gets the tree of splits used to arrange the children.
+     *
+     * @return the split tree
+     */
+    public SplitTree getSplitTree() {
+        return mSplitTree;
+    }
+
+    /**
+     * Sets the tree of splits used to arrange the children. The tree must have
+     * one pane per child.
+     *
+     * @param splitTree the split tree
+     */
+    public void setSplitTree(SplitTree splitTree) {
+        mSplitTree = splitTree;
+        mDraggingNode = SplitTree.NO_NODE;
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Moves the splitter of a split node to a fraction of the node.
+     *
+     * @param node    the split node
+     * @param percent the desired position, between 0 and 1
+     */
+    public void setSplitterPositionPercent(int node, float percent) {
+        mSplitTree.setPositionPercent(node, percent);
+        requestLayout();
+        invalidate();
+        notifySplitterPositionChanged(node, false);
+    }
+
+    /**
+     * Gets the current drawable used for the splitters.
+     *
+     * @return the drawable used for the splitters
+     */
+    public Drawable getSplitterDrawable() {
+        return mSplitterDrawable;
+    }
+
+    /**
+     * Sets the drawable used for the splitters.
+     *
+     * @param splitterDrawable the drawable used for the splitters
+     */
+    public void setSplitterDrawable(Drawable splitterDrawable) {
+        mSplitterDrawable = splitterDrawable;
+        updateSplitterDrawableState();
+        invalidate();
+    }
+
+    /**
+     * Gets the current size of the splitters in pixels.
+     *
+     * @return the size of the splitters
+     */
+    public int getSplitterSize() {
+        return mSplitterSize;
+    }
+
+    /**
+     * Sets the current size of the splitters in pixels.
+     *
+     * @param splitterSize the desired size of the splitters
+     */
+    public void setSplitterSize(int splitterSize) {
+        mSplitterSize = splitterSize;
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Gets whether the splitters are movable by the user.
+     *
+     * @return whether the splitters are movable
+     */
+    public boolean isSplitterMovable() {
+        return mSplitterMovable;
+    }
+
+    /**
+     * Sets whether the splitters are movable by the user.
+     *
+     * @param splitterMovable whether the splitters are movable
+     */
+    public void setSplitterMovable(boolean splitterMovable) {
+        mSplitterMovable = splitterMovable;
+    }
+
+    /**
+     * Gets the current "touch slop" which is used to extend the grab size of the splitters.
+     *
+     * @return the current "touch slop" of the splitters
+     */
+    public int getSplitterTouchSlop() {
+        return mSplitterTouchSlop;
+    }
+
+    /**
+     * Sets the current "touch slop" which is used to extend the grab size of the splitters.
+     *
+     * @param splitterTouchSlop the desired "touch slop" of the splitters
+     */
+    public void setSplitterTouchSlop(int splitterTouchSlop) {
+        mSplitterTouchSlop = splitterTouchSlop;
+    }
+
+    /**
+     * Gets the minimum size of panes, in pixels.
+     *
+     * @return the minimum size of panes, in pixels.
+     */
+    public int getPaneSizeMin() {
+        return mPaneSizeMin;
+    }
+
+    /**
+     * Sets the minimum size of panes, in pixels.
+     *
+     * @param paneSizeMin the minimum size of panes, in pixels
+     */
+    public void setPaneSizeMin(int paneSizeMin) {
+        mPaneSizeMin = paneSizeMin;
+        mPaneSizeMinPercent = -1;
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Gets the minimum size of panes, as a fraction of the split they belong to.
+     *
+     * @return the minimum size of panes as a fraction, or a negative value if a pixel size is used.
+     */
+    public float getPaneSizeMinPercent() {
+        return mPaneSizeMinPercent;
+    }
+
+    /**
+     * Sets the minimum size of panes, as a fraction of the split they belong to.
+     *
+     * @param paneSizeMinPercent the minimum size of panes as a fraction, or a negative value to use the pixel size
+     */
+    public void setPaneSizeMinPercent(float paneSizeMinPercent) {
+        mPaneSizeMinPercent = paneSizeMinPercent;
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Gets the OnSplitterPositionChangedListener to receive callbacks when a splitter position is changed
+     *
+     * @return the OnSplitterPositionChangedListener to receive callbacks when a splitter position is changed
+     */
+    public OnSplitterPositionChangedListener getOnSplitterPositionChangedListener() {
+        return mOnSplitterPositionChangedListener;
+    }
+
+    /**
+     * Sets the OnSplitterPositionChangedListener to receive callbacks when a splitter position is changed
+     *
+     * @param l the OnSplitterPositionChangedListener to receive callbacks when a splitter position is changed
+     */
+    public void setOnSplitterPositionChangedListener(OnSplitterPositionChangedListener l) {
+        this.mOnSplitterPositionChangedListener = l;
+    }
+
+    private void notifySplitterPositionChanged(int node, boolean fromUser) {
+        if (mOnSplitterPositionChangedListener != null) {
+            mOnSplitterPositionChangedListener.onSplitterPositionChanged(this, node, fromUser);
+        }
+    }
+
+    /**
+     * Holds important values when we need to save instance state.
+     */
+    public static class SavedState extends BaseSavedState {
+        public static final Creator<SavedState> CREATOR = new Creator<SavedState>() {
+
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+
+        };
+
+        float[] mSplitterPositionPercents;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            mSplitterPositionPercents = in.createFloatArray();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeFloatArray(mSplitterPositionPercents);
+        }
+    }
+
+}
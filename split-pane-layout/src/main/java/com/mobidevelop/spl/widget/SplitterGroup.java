@@ -0,0 +1,104 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.widget;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Keeps the splitters of several SplitPaneLayouts at the same positions, such as
+ * the column dividers of the rows of a table.
+ * <p/>
+ * The group holds one fraction per splitter index. When the splitter of one member
+ * moves, the other members are bound to the new fraction: each only requests a
+ * layout, so all of them are measured in the next traversal together with the
+ * member that moved, and only that member notifies its listeners.
+ */
+public final class SplitterGroup {
+
+    private final ArrayList<SplitPaneLayout> mMembers = new ArrayList<SplitPaneLayout>();
+    private float[] mPercents = new float[0];
+
+    /**
+     * Gets the number of layouts in the group.
+     *
+     * @return the number of layouts in the group
+     */
+    public int size() {
+        return mMembers.size();
+    }
+
+    /**
+     * Gets the shared position of a splitter, as a fraction of the layout.
+     *
+     * @param index the index of the splitter
+     * @return the position of the splitter, or {@link Float#NaN} if no member has set it yet
+     */
+    public float getSplitterPositionPercent(int index) {
+        return index < mPercents.length ? mPercents[index] : Float.NaN;
+    }
+
+    /**
+     * Sets the shared position of a splitter and binds every member to it.
+     *
+     * @param index    the index of the splitter
+     * @param position the position of the splitter, as a fraction of the layout
+     */
+    public void setSplitterPositionPercent(int index, float position) {
+        publish(null, index, position);
+    }
+
+    void add(SplitPaneLayout layout) {
+        if (mMembers.contains(layout)) {
+            return;
+        }
+        mMembers.add(layout);
+        // A new member takes on the positions the group already agreed on
+        int count = Math.min(mPercents.length, layout.getSplitterCount());
+        for (int i = 0; i < count; i++) {
+            if (!Float.isNaN(mPercents[i])) {
+                layout.bindSplitterPositionPercent(i, mPercents[i]);
+            }
+        }
+    }
+
+    void remove(SplitPaneLayout layout) {
+        mMembers.remove(layout);
+    }
+
+    /**
+     * Records the position of a splitter of one member and binds the others to it.
+     */
+    void publish(SplitPaneLayout source, int index, float position) {
+        if (index >= mPercents.length) {
+            int length = mPercents.length;
+            mPercents = Arrays.copyOf(mPercents, index + 1);
+            Arrays.fill(mPercents, length, mPercents.length, Float.NaN);
+        }
+        mPercents[index] = position;
+        for (int i = 0, size = mMembers.size(); i < size; i++) {
+            SplitPaneLayout member = mMembers.get(i);
+            if (member != source && index < member.getSplitterCount()) {
+                member.bindSplitterPositionPercent(index, position);
+            }
+        }
+    }
+
+}
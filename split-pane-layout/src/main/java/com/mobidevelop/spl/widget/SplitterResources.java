@@ -0,0 +1,83 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.widget;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.PaintDrawable;
+import android.os.Build;
+import android.util.SparseArray;
+
+/**
+ * Splitter drawables shared by every layout in the process.
+ * <p/>
+ * Drawables for plain colors are created from a {@link Drawable.ConstantState}
+ * per color, so layouts using the same color share its state instead of each
+ * holding a copy. Drawables given as resources are already shared the same way
+ * by {@link android.content.res.Resources}; their ids are kept so they can be
+ * loaded when they are first needed.
+ */
+final class SplitterResources {
+
+    /**
+     * The color of splitters and dragging overlays without a background.
+     */
+    static final int DEFAULT_COLOR = 0x88FFFFFF;
+
+    private static final SparseArray<Drawable.ConstantState> sColorStates = new SparseArray<Drawable.ConstantState>();
+
+    private SplitterResources() {
+    }
+
+    /**
+     * Gets a drawable filled with a color, sharing its state with every other
+     * drawable of that color. Call {@link Drawable#mutate()} before changing it.
+     *
+     * @param color the color to fill with
+     * @return a new drawable filled with the color
+     */
+    static Drawable newColorDrawable(int color) {
+        Drawable.ConstantState state;
+        synchronized (sColorStates) {
+            state = sColorStates.get(color);
+            if (state == null) {
+                state = new PaintDrawable(color).getConstantState();
+                sColorStates.put(color, state);
+            }
+        }
+        return state.newDrawable();
+    }
+
+    /**
+     * Loads a drawable resource.
+     *
+     * @param context the context to resolve the drawable with
+     * @param resId   the id of the drawable resource
+     * @return the drawable
+     */
+    @SuppressWarnings("deprecation")
+    static Drawable newDrawable(Context context, int resId) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            return context.getDrawable(resId);
+        }
+        return context.getResources().getDrawable(resId);
+    }
+
+}
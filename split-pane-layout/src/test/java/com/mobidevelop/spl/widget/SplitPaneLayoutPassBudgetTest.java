@@ -0,0 +1,585 @@
+/*
+ *  Android Split Pane Layout.
+ *  https://github.com/MobiDevelop/android-split-pane-layout
+ *
+ *  Copyright (C) 2012 Justin Shapcott
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.mobidevelop.spl.widget;
+
+import android.content.Context;
+import android.os.Parcelable;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.View.MeasureSpec;
+
+import com.mobidevelop.spl.R;
+import com.mobidevelop.spl.core.SplitPositionStore;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives real layouts through inflation, setters, drags, rotation and state restore,
+ * and holds each scenario to a strict budget of measure and layout passes, and of
+ * allocations while dragging. A change which adds a pass or an allocation to one of
+ * these paths fails here rather than showing up as jank.
+ * <p/>
+ * Passes are run by hand, the way a traversal would run them, so the counts do not
+ * depend on the looper.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SplitPaneLayoutPassBudgetTest {
+
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 600;
+    private static final int STORE_ID = 0x7f0f0001;
+
+    private static final int DRAG_MOVES = 30;
+    private static final int ALLOCATION_MOVES = 200;
+    // Bytes per move on top of what delivering an event costs by itself. A warmed up
+    // drag allocates nothing, and the count is exact, so even one small object per move
+    // fails; a one-off allocation smaller than ALLOCATION_MOVES bytes rounds away.
+    private static final int ALLOCATION_BUDGET_PER_MOVE = 0;
+
+    private Context mContext;
+    private SplitPaneMetrics mMetrics;
+    private CountingView mFirst;
+    private CountingView mSecond;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mMetrics = new SplitPaneMetrics();
+    }
+
+    @Test
+    public void firstPassMeasuresOnce() {
+        SplitPaneLayout layout = inflate("horizontal", "overlay");
+        pass(layout, WIDTH, HEIGHT);
+        assertPasses(1, 1, 1);
+    }
+
+    @Test
+    public void unchangedPassIsFree() {
+        SplitPaneLayout layout = inflate("horizontal", "overlay");
+        pass(layout, WIDTH, HEIGHT);
+        resetCounts();
+        pass(layout, WIDTH, HEIGHT);
+        assertPasses(0, 0, 0);
+    }
+
+    @Test
+    public void outsideRequestKeepsPaneMeasurements() {
+        SplitPaneLayout layout = inflate("horizontal", "overlay");
+        pass(layout, WIDTH, HEIGHT);
+        resetCounts();
+        layout.requestLayout();
+        pass(layout, WIDTH, HEIGHT);
+        assertPasses(1, 1, 0);
+    }
+
+    @Test
+    public void setterMeasuresOnce() {
+        SplitPaneLayout layout = inflate("horizontal", "overlay");
+        pass(layout, WIDTH, HEIGHT);
+        resetCounts();
+        layout.setSplitterPositionPercent(0.3f);
+        pass(layout, WIDTH, HEIGHT);
+        assertEquals(1, mMetrics.getRemeasureCount());
+        assertPasses(1, 1, 1);
+        assertEquals(300, layout.getSplitterPosition(0));
+    }
+
+    @Test
+    public void positionUpdateListenerIsTraced() {
+        SplitPaneLayout layout = inflate("horizontal", "overlay");
+        pass(layout, WIDTH, HEIGHT);
+        layout.setOnSplitterPositionUpdateListener(new SplitPaneLayout.OnSplitterPositionUpdateListener() {
+            @Override
+            public void onSplitterPositionUpdate(SplitPaneLayout splitPaneLayout, int splitter, int position, float fraction, boolean fromUser, int phase) {
+            }
+        });
+        resetCounts();
+        layout.setSplitterPositionPercent(0.3f);
+        assertEquals(1, mMetrics.getCount(SplitPaneTracer.SECTION_LISTENER));
+    }
+
+    @Test
+    public void batchedSettersMeasureOnce() {
+        SplitPaneLayout layout = inflate("horizontal", "overlay");
+        pass(layout, WIDTH, HEIGHT);
+        resetCounts();
+        layout.beginUpdate();
+        layout.setSplitterPosition(100);
+        layout.setSplitterPositionPercent(0.4f);
+        layout.setPaneSizeMin(20);
+        layout.endUpdate();
+        pass(layout, WIDTH, HEIGHT);
+        assertEquals(1, mMetrics.getRemeasureCount());
+        assertPasses(1, 1, 1);
+    }
+
+    @Test
+    public void batchedPercentSurvivesMinimumSize() {
+        SplitPaneLayout layout = inflate("horizontal", "overlay");
+        pass(layout, WIDTH, HEIGHT);
+        layout.beginUpdate();
+        layout.setSplitterPositionPercent(0.4f);
+        assertEquals(400, layout.getSplitterPosition(0));
+        layout.setPaneSizeMin(20);
+        assertEquals(400, layout.getSplitterPosition(0));
+        layout.endUpdate();
+        pass(layout, WIDTH, HEIGHT);
+        assertEquals(400, layout.getSplitterPosition(0));
+        assertEquals(0.4f, layout.getSplitterPositionPercent(0), 0.001f);
+    }
+
+    @Test
+    public void bindingSamePositionIsFree() {
+        SplitPaneLayout layout = inflate("horizontal", "overlay");
+        pass(layout, WIDTH, HEIGHT);
+        resetCounts();
+        layout.bindSplitterPositionPercent(layout.getSplitterPositionPercent());
+        assertFalse(layout.isLayoutRequested());
+        pass(layout, WIDTH, HEIGHT);
+        assertPasses(0, 0, 0);
+    }
+
+    @Test
+    public void overlayDragMeasuresOnceOnRelease() {
+        assertDragMeasuresOnceOnRelease(inflate("horizontal", "overlay"));
+    }
+
+    @Test
+    public void previewDragMeasuresOnceOnRelease() {
+        assertDragMeasuresOnceOnRelease(inflate("horizontal", "preview"));
+    }
+
+    @Test
+    public void verticalDragMeasuresOnceOnRelease() {
+        assertDragMeasuresOnceOnRelease(inflate("vertical", "overlay"));
+    }
+
+    @Test
+    public void cancelledDragKeepsPositionWithoutPasses() {
+        SplitPaneLayout layout = inflate("horizontal", "overlay");
+        pass(layout, WIDTH, HEIGHT);
+        int start = layout.getSplitterPosition(0);
+        resetCounts();
+        long time = 0;
+        layout.onTouchEvent(obtain(MotionEvent.ACTION_DOWN, time, start, HEIGHT / 2));
+        for (int i = 1; i <= DRAG_MOVES; i++) {
+            layout.onTouchEvent(obtain(MotionEvent.ACTION_MOVE, time += 8, start - i * 5, HEIGHT / 2));
+            pass(layout, WIDTH, HEIGHT);
+        }
+        layout.onTouchEvent(obtain(MotionEvent.ACTION_CANCEL, time + 8, start - DRAG_MOVES * 5, HEIGHT / 2));
+        pass(layout, WIDTH, HEIGHT);
+        assertPasses(0, 0, 0);
+        assertEquals(start, layout.getSplitterPosition(0));
+
+        // The next drag starts from scratch
+        layout.onTouchEvent(obtain(MotionEvent.ACTION_DOWN, time += 100, start, HEIGHT / 2));
+        layout.onTouchEvent(obtain(MotionEvent.ACTION_MOVE, time += 8, start + 50, HEIGHT / 2));
+        layout.onTouchEvent(obtain(MotionEvent.ACTION_UP, time + 8, start + 50, HEIGHT / 2));
+        pass(layout, WIDTH, HEIGHT);
+        assertEquals(start + 50, layout.getSplitterPosition(0));
+        assertPasses(1, 1, 1);
+    }
+
+    @Test
+    public void throttledLiveResizeCatchesUpOnALaterFrame() throws InterruptedException {
+        SplitPaneLayout layout = inflate("horizontal", "live");
+        pass(layout, WIDTH, HEIGHT);
+        int start = layout.getSplitterPosition(0);
+        layout.onTouchEvent(obtain(MotionEvent.ACTION_DOWN, 0, start, HEIGHT / 2));
+        layout.onTouchEvent(obtain(MotionEvent.ACTION_MOVE, 8, start + 50, HEIGHT / 2));
+        // Within the same frame interval, so the throttle holds this one back
+        layout.onTouchEvent(obtain(MotionEvent.ACTION_MOVE, 9, start + 100, HEIGHT / 2));
+
+        // The finger stops; no further move arrives
+        Thread.sleep(50);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(start + 100, layout.getSplitterPosition(0));
+    }
+
+    @Test
+    public void positionPostedFromAWorkerBeforeAttachIsApplied() throws InterruptedException {
+        final SplitPaneLayout layout = inflate("horizontal", "overlay");
+        postFromWorker(layout, 0.25f);
+        ShadowLooper.runUiThreadTasks();
+        pass(layout, WIDTH, HEIGHT);
+        assertPasses(1, 1, 1);
+        assertEquals(250, layout.getSplitterPosition(0));
+
+        // The mailbox is free again, so a later post is delivered as well
+        postFromWorker(layout, 0.75f);
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(750, layout.getSplitterPosition(0));
+    }
+
+    @Test
+    public void rotationMeasuresOnce() {
+        SplitPaneLayout layout = inflate("horizontal", "overlay");
+        layout.setSplitterPositionPercent(0.25f);
+        pass(layout, WIDTH, HEIGHT);
+        assertEquals(250, layout.getSplitterPosition(0));
+        resetCounts();
+        // Turning to portrait stacks the panes, with the splitter at the same fraction
+        layout.setOrientation(SplitPaneLayout.ORIENTATION_VERTICAL);
+        pass(layout, HEIGHT, WIDTH);
+        assertPasses(1, 1, 1);
+        assertEquals(250, layout.getSplitterPosition(0));
+        assertEquals(0.25f, layout.getSplitterPositionPercent(0), 0.001f);
+        assertEquals(HEIGHT, mFirst.getWidth());
+        assertEquals(0, mSecond.getLeft());
+        assertEquals(HEIGHT, mSecond.getWidth());
+        assertEquals(WIDTH, mSecond.getBottom());
+        assertTrue(mSecond.getTop() > mFirst.getBottom());
+    }
+
+    @Test
+    public void resizeMeasuresOnlyPanesWhichAsk() {
+        SplitPaneLayout layout = inflate("horizontal", "overlay");
+        layout.setResizeSettleTime(500);
+        pass(layout, WIDTH, HEIGHT);
+        pass(layout, WIDTH - 10, HEIGHT);
+        pass(layout, WIDTH - 20, HEIGHT);
+        int firstWidth = mFirst.getMeasuredWidth();
+        resetCounts();
+        pass(layout, WIDTH - 30, HEIGHT);
+        assertPasses(1, 1, 0);
+
+        // A pane whose content changes mid-resize is measured at the size it has
+        mFirst.requestLayout();
+        pass(layout, WIDTH - 40, HEIGHT);
+        assertEquals(1, mFirst.mMeasureCount);
+        assertEquals(0, mSecond.mMeasureCount);
+        assertEquals(firstWidth, mFirst.getMeasuredWidth());
+        assertFalse(mFirst.isLayoutRequested());
+    }
+
+    @Test
+    public void restoredStateMeasuresOnce() {
+        SplitPaneLayout layout = inflate("horizontal", "overlay");
+        pass(layout, WIDTH, HEIGHT);
+        layout.setSplitterPositionPercent(0.3f);
+        pass(layout, WIDTH, HEIGHT);
+        Parcelable state = layout.onSaveInstanceState();
+
+        SplitPaneLayout restored = inflate("horizontal", "overlay");
+        resetCounts();
+        restored.onRestoreInstanceState(state);
+        pass(restored, WIDTH, HEIGHT);
+        assertPasses(1, 1, 1);
+        assertEquals(300, restored.getSplitterPosition(0));
+    }
+
+    @Test
+    public void storedPositionsAreRestoredInTheFirstPass() throws IOException {
+        File file = newStoreFile(500);
+        try {
+            SplitPositionStore store = new SplitPositionStore(file);
+            Assume.assumeFalse(store.isLoaded());
+            SplitPaneLayout layout = inflate("horizontal", "overlay");
+            layout.setId(STORE_ID);
+            layout.setSplitterPositionStore(store);
+            pass(layout, WIDTH, HEIGHT);
+            assertPasses(1, 1, 1);
+            assertEquals(300, layout.getSplitterPosition(0));
+            store.close();
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void storedPositionsAreRestoredOnceASlowStoreIsRead() throws IOException {
+        File file = newStoreFile(20000);
+        // Queue what the layout posts to the UI thread, as a real looper would
+        ShadowLooper.pauseMainLooper();
+        try {
+            SplitPositionStore store = new SplitPositionStore(file);
+            Assume.assumeFalse(store.isLoaded());
+            SplitPaneLayout layout = inflate("horizontal", "overlay");
+            layout.setId(STORE_ID);
+            layout.setSplitterPositionStore(store);
+            pass(layout, WIDTH, HEIGHT);
+
+            assertTrue(store.awaitLoaded(5, TimeUnit.SECONDS));
+            ShadowLooper.runUiThreadTasks();
+            pass(layout, WIDTH, HEIGHT);
+            assertEquals(300, layout.getSplitterPosition(0));
+            store.close();
+        } finally {
+            ShadowLooper.unPauseMainLooper();
+            file.delete();
+        }
+    }
+
+    @Test
+    public void swappingPanesKeepsPaneMeasurements() {
+        SplitPaneLayout layout = inflate("horizontal", "overlay");
+        layout.setSplitterPositionPercent(0.3f);
+        pass(layout, WIDTH, HEIGHT);
+        int firstWidth = mFirst.getMeasuredWidth();
+        resetCounts();
+        layout.swapPanes();
+        pass(layout, WIDTH, HEIGHT);
+        assertPasses(1, 1, 0);
+        assertEquals(mSecond, layout.getChildAt(0));
+        assertEquals(0, mSecond.getLeft());
+        assertEquals(firstWidth, mFirst.getWidth());
+        assertEquals(WIDTH, mFirst.getRight());
+    }
+
+    @Test
+    public void flippingOrientationBackMeasuresOnce() {
+        SplitPaneLayout layout = inflate("horizontal", "overlay");
+        pass(layout, WIDTH, HEIGHT);
+        resetCounts();
+        layout.setOrientation(SplitPaneLayout.ORIENTATION_VERTICAL);
+        pass(layout, WIDTH, HEIGHT);
+        assertPasses(1, 1, 1);
+        assertEquals(0.5f, layout.getSplitterPositionPercent(), 0.01f);
+        resetCounts();
+        layout.setOrientation(SplitPaneLayout.ORIENTATION_HORIZONTAL);
+        pass(layout, WIDTH, HEIGHT);
+        // The panes get back specs they had, which the view's own measure cache only
+        // defers: it still runs onMeasure before the pane is laid out
+        assertPasses(1, 1, 1);
+        assertEquals(WIDTH / 2, layout.getSplitterPosition(0));
+    }
+
+    @Test
+    public void recreatedPaneKeepsLayoutParams() {
+        SplitPaneLayout layout = inflate("horizontal", "overlay");
+        SplitPaneLayout.LayoutParams params = (SplitPaneLayout.LayoutParams) mSecond.getLayoutParams();
+        params.sizeMin = 300;
+        setPaneFactory(layout);
+        pass(layout, WIDTH, HEIGHT);
+        layout.setPaneCollapsed(1, true);
+        pass(layout, WIDTH, HEIGHT);
+        layout.setPaneCollapsed(1, false);
+        pass(layout, WIDTH, HEIGHT);
+        View recreated = layout.getChildAt(1);
+        assertTrue(recreated != mSecond);
+        assertEquals(params, recreated.getLayoutParams());
+        layout.setSplitterPosition(WIDTH);
+        pass(layout, WIDTH, HEIGHT);
+        assertEquals(WIDTH - 300, layout.getSplitterPosition(0));
+    }
+
+    @Test
+    public void dragMovesStayWithinAllocationBudget() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        allocations.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+
+        SplitPaneLayout layout = inflate("horizontal", "overlay");
+        pass(layout, WIDTH, HEIGHT);
+        int start = layout.getSplitterPosition(0);
+        MotionEvent[] idle = obtainMoves(ALLOCATION_MOVES, 50);
+        MotionEvent[] drag = obtainMoves(ALLOCATION_MOVES, start);
+
+        // Warm up both paths, then measure a gesture which misses the splitter as the
+        // baseline for what event delivery costs by itself
+        drag(layout, idle, 50);
+        drag(layout, drag, start);
+        layout.setSplitterPosition(start);
+        pass(layout, WIDTH, HEIGHT);
+
+        layout.onTouchEvent(obtain(MotionEvent.ACTION_DOWN, 0, 50, HEIGHT / 2));
+        long before = allocations.getThreadAllocatedBytes(thread);
+        for (MotionEvent event : idle) {
+            layout.onTouchEvent(event);
+        }
+        long baseline = allocations.getThreadAllocatedBytes(thread) - before;
+        layout.onTouchEvent(obtain(MotionEvent.ACTION_UP, 0, 50, HEIGHT / 2));
+
+        layout.onTouchEvent(obtain(MotionEvent.ACTION_DOWN, 0, start, HEIGHT / 2));
+        before = allocations.getThreadAllocatedBytes(thread);
+        for (MotionEvent event : drag) {
+            layout.onTouchEvent(event);
+        }
+        long dragging = allocations.getThreadAllocatedBytes(thread) - before;
+        layout.onTouchEvent(obtain(MotionEvent.ACTION_UP, 0, start, HEIGHT / 2));
+
+        long perMove = (dragging - baseline) / ALLOCATION_MOVES;
+        assertTrue("Dragging allocated " + perMove + " bytes per move", perMove <= ALLOCATION_BUDGET_PER_MOVE);
+    }
+
+    private void assertDragMeasuresOnceOnRelease(SplitPaneLayout layout) {
+        boolean horizontal = layout.getOrientation() == SplitPaneLayout.ORIENTATION_HORIZONTAL;
+        int width = horizontal ? WIDTH : HEIGHT;
+        int height = horizontal ? HEIGHT : WIDTH;
+        pass(layout, width, height);
+        int start = layout.getSplitterPosition(0);
+        resetCounts();
+        long time = 0;
+        layout.onTouchEvent(obtainAlong(horizontal, MotionEvent.ACTION_DOWN, time, start));
+        for (int i = 1; i <= DRAG_MOVES; i++) {
+            layout.onTouchEvent(obtainAlong(horizontal, MotionEvent.ACTION_MOVE, time += 8, start + i * 5));
+            pass(layout, width, height);
+        }
+        assertPasses(0, 0, 0);
+        layout.onTouchEvent(obtainAlong(horizontal, MotionEvent.ACTION_UP, time + 8, start + DRAG_MOVES * 5));
+        pass(layout, width, height);
+        assertPasses(1, 1, 1);
+        assertEquals(1, mMetrics.getCount(SplitPaneTracer.SECTION_DRAG));
+        assertEquals(start + DRAG_MOVES * 5, layout.getSplitterPosition(0));
+    }
+
+    private void setPaneFactory(SplitPaneLayout layout) {
+        layout.setPaneFactory(new SplitPaneLayout.PaneFactory() {
+            @Override
+            public View onCreatePane(SplitPaneLayout splitPaneLayout, int pane) {
+                return new View(mContext);
+            }
+
+            @Override
+            public void onReleasePane(SplitPaneLayout splitPaneLayout, int pane, View view) {
+            }
+        });
+    }
+
+    private SplitPaneLayout inflate(String orientation, String resizeMode) {
+        AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.orientation, orientation)
+                .addAttribute(R.attr.splitterSize, "10px")
+                .addAttribute(R.attr.splitterPosition, "50%")
+                .addAttribute(R.attr.splitterTouchSlop, "0px")
+                .addAttribute(R.attr.splitterResizeMode, resizeMode)
+                .addAttribute(R.attr.splitterFlingEnabled, "false")
+                .build();
+        SplitPaneLayout layout = new SplitPaneLayout(mContext, attrs);
+        mFirst = new CountingView(mContext);
+        mSecond = new CountingView(mContext);
+        layout.addView(mFirst);
+        layout.addView(mSecond);
+        layout.onFinishInflate();
+        layout.setTracer(mMetrics);
+        return layout;
+    }
+
+    /**
+     * Runs a traversal the way the view root would: measure, which only reaches
+     * onMeasure if a layout was requested or the size changed, then layout.
+     */
+    private static void pass(View view, int width, int height) {
+        view.measure(MeasureSpec.makeMeasureSpec(width, MeasureSpec.EXACTLY), MeasureSpec.makeMeasureSpec(height, MeasureSpec.EXACTLY));
+        view.layout(0, 0, width, height);
+    }
+
+    /**
+     * Writes a position store holding 0.3 for the layout with {@link #STORE_ID}, and
+     * positions for other layouts which make the file take longer to read.
+     */
+    private static File newStoreFile(int otherLayouts) throws IOException {
+        File file = File.createTempFile("split_positions", null);
+        SplitPositionStore store = new SplitPositionStore(file);
+        for (int i = 0; i < otherLayouts; i++) {
+            store.put("other" + i, new float[] { 0.5f });
+        }
+        store.put(String.valueOf(STORE_ID), new float[] { 0.3f });
+        store.close();
+        return file;
+    }
+
+    private static void postFromWorker(final SplitPaneLayout layout, final float position) throws InterruptedException {
+        Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                layout.postSplitterPositionPercent(0, position);
+            }
+        });
+        worker.start();
+        worker.join();
+    }
+
+    private void drag(SplitPaneLayout layout, MotionEvent[] moves, int from) {
+        layout.onTouchEvent(obtain(MotionEvent.ACTION_DOWN, 0, from, HEIGHT / 2));
+        for (MotionEvent event : moves) {
+            layout.onTouchEvent(event);
+        }
+        layout.onTouchEvent(obtain(MotionEvent.ACTION_UP, 0, from, HEIGHT / 2));
+    }
+
+    private static MotionEvent[] obtainMoves(int count, int around) {
+        MotionEvent[] events = new MotionEvent[count];
+        for (int i = 0; i < count; i++) {
+            // Back and forth, so the splitter never reaches a limit
+            events[i] = obtain(MotionEvent.ACTION_MOVE, (i + 1) * 8, around + 20 + (i % 10) * 5, HEIGHT / 2);
+        }
+        return events;
+    }
+
+    private static MotionEvent obtainAlong(boolean horizontal, int action, long time, int position) {
+        return horizontal ? obtain(action, time, position, HEIGHT / 2) : obtain(action, time, HEIGHT / 2, position);
+    }
+
+    private static MotionEvent obtain(int action, long time, float x, float y) {
+        return MotionEvent.obtain(0, time, action, x, y, 0);
+    }
+
+    private void resetCounts() {
+        mMetrics.reset();
+        mFirst.mMeasureCount = 0;
+        mSecond.mMeasureCount = 0;
+    }
+
+    private void assertPasses(int measures, int layouts, int paneMeasures) {
+        assertEquals("layout measures", measures, mMetrics.getCount(SplitPaneTracer.SECTION_MEASURE));
+        assertEquals("layout layouts", layouts, mMetrics.getCount(SplitPaneTracer.SECTION_LAYOUT));
+        assertEquals("first pane measures", paneMeasures, mFirst.mMeasureCount);
+        assertEquals("second pane measures", paneMeasures, mSecond.mMeasureCount);
+    }
+
+    private static final class CountingView extends View {
+
+        int mMeasureCount = 0;
+
+        CountingView(Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            mMeasureCount++;
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        }
+
+    }
+
+}